@@ -0,0 +1,103 @@
+package com.marketstream.book;
+
+import com.marketstream.codec.BookUpdateCodec;
+import com.marketstream.model.BookUpdateBatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Single-threaded book maintenance, the work one listener thread does per update. The update mix follows
+// BookUpdateGenerator: 20 levels per side around a walking mid, skewed to the top, 10% deletes. applyUpdate is
+// the bare book; decodeAndApply adds the record decode and the per-batch lock, per update. The target is
+// 1M updates/sec on one core, i.e. at most 1000 ns per update
+@State(Scope.Thread)
+@Fork(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderBookBenchmark {
+    private static final int LEVELS = 20;
+    private static final int MAX_LEVELS = 200;
+    private static final int BATCH_SIZE = 32;
+    private static final int UPDATES = 1 << 20;
+    private static final int RECORDS = UPDATES / BATCH_SIZE;
+
+    @Param({"1", "1000"})
+    public int books;
+
+    private OrderBook[] orderBooks;
+    private byte[] sides;
+    private byte[] actions;
+    private long[] prices;
+    private long[] sizes;
+    private byte[][] records;
+    private BookUpdateBatch scratch;
+    private int nextUpdate;
+    private int nextRecord;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        orderBooks = new OrderBook[books];
+        long[] mids = new long[books];
+        for (int b = 0; b < books; b++) {
+            orderBooks[b] = new OrderBook("SYM" + b, 2, MAX_LEVELS, 10);
+            mids[b] = 10_000L + b;
+            for (int level = 1; level <= LEVELS; level++) {
+                orderBooks[b].apply(BookUpdateBatch.BID, BookUpdateBatch.ADD, mids[b] - level, 100L * level);
+                orderBooks[b].apply(BookUpdateBatch.ASK, BookUpdateBatch.ADD, mids[b] + level, 100L * level);
+            }
+        }
+        sides = new byte[UPDATES];
+        actions = new byte[UPDATES];
+        prices = new long[UPDATES];
+        sizes = new long[UPDATES];
+        records = new byte[RECORDS][];
+        BookUpdateBatch batch = new BookUpdateBatch("SYM0", 2);
+        for (int record = 0; record < RECORDS; record++) {
+            // Batches rotate over the books, as the generator rotates over symbols
+            int b = record % books;
+            batch.clear();
+            batch.setSymbol("SYM" + b);
+            int move = random.nextInt(3) - 1;
+            if (move != 0) {
+                mids[b] += move;
+                batch.add(move > 0 ? BookUpdateBatch.ASK : BookUpdateBatch.BID, BookUpdateBatch.DELETE, mids[b], 0L);
+            }
+            while (batch.size() < BATCH_SIZE) {
+                byte side = random.nextBoolean() ? BookUpdateBatch.BID : BookUpdateBatch.ASK;
+                int level = 1 + Math.min(random.nextInt(LEVELS), random.nextInt(LEVELS));
+                long price = side == BookUpdateBatch.BID ? mids[b] - level : mids[b] + level;
+                boolean delete = random.nextInt(10) == 0;
+                batch.add(side, delete ? BookUpdateBatch.DELETE : BookUpdateBatch.MODIFY, price,
+                        delete ? 0L : 1 + random.nextInt(10_000));
+            }
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                int index = record * BATCH_SIZE + i;
+                sides[index] = batch.sideAt(i);
+                actions[index] = batch.actionAt(i);
+                prices[index] = batch.priceAt(i);
+                sizes[index] = batch.sizeAt(i);
+            }
+            records[record] = BookUpdateCodec.encode(batch);
+        }
+        scratch = new BookUpdateBatch();
+    }
+
+    @Benchmark
+    public boolean applyUpdate() {
+        int index = nextUpdate;
+        nextUpdate = (index + 1) & (UPDATES - 1);
+        OrderBook book = orderBooks[(index / BATCH_SIZE) % books];
+        return book.apply(sides[index], actions[index], prices[index], sizes[index]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int decodeAndApply() {
+        int record = nextRecord;
+        nextRecord = record + 1 == RECORDS ? 0 : record + 1;
+        BookUpdateCodec.decode(records[record], scratch);
+        return orderBooks[record % books].apply(scratch);
+    }
+}
@@ -0,0 +1,265 @@
+package com.marketstream.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.marketstream.MarketStreamApplication;
+import com.marketstream.codec.TickSerializer;
+import com.marketstream.codec.WireFormat;
+import com.marketstream.model.Tick;
+import com.marketstream.service.MarketDataCache;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Several MarketStream nodes in one JVM against an embedded broker, each with one NDJSON stream
+ * client. The harness publishes a known sequence of ticks for its own symbols and then checks,
+ * per node, that the node's last-value cache and its client both ended on every symbol's final
+ * price, i.e. that no client missed a symbol because another node owned its partition.
+ * <p>
+ * {@code ./gradlew clusterHarness -PharnessNodes=3 -PharnessMode=broadcast}; with
+ * {@code -PharnessMode=partitioned} each node only ends up with roughly its share of the symbols.
+ * Exits with status 1 when any node is missing a final value.
+ */
+public final class ClusterFanOutHarness {
+    private static final String TOPIC = "market-data-topic";
+    private static final String LISTENER_ID = "market-data-batch-listener";
+    private static final int PARTITIONS = 3;
+    private static final String SYMBOL_PREFIX = "FANOUT";
+    private static final int PRICE_SCALE = 2;
+    private static final Duration ASSIGNMENT_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration SETTLE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(readers)
+            .build();
+
+    private static final class Node {
+        final String id;
+        final ConfigurableApplicationContext context;
+        final int port;
+        // Last price the node's stream client saw per harness symbol
+        final Map<String, Long> streamed = new ConcurrentHashMap<>();
+
+        Node(String id, ConfigurableApplicationContext context) {
+            this.id = id;
+            this.context = context;
+            this.port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        String mode = args.length > 1 ? args[1] : "broadcast";
+        int symbols = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        boolean complete = new ClusterFanOutHarness().run(nodes, mode, symbols, rounds);
+        System.exit(complete ? 0 : 1);
+    }
+
+    private boolean run(int nodeCount, String mode, int symbolCount, int rounds) throws Exception {
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaBroker(1, false, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+        List<Node> nodes = new ArrayList<>();
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(start("node-" + i, mode, broker.getBrokersAsString()));
+            }
+            awaitAssignment(nodes, mode);
+            for (Node node : nodes) {
+                openStream(node);
+            }
+            List<String> symbols = new ArrayList<>(symbolCount);
+            for (int i = 0; i < symbolCount; i++) {
+                symbols.add(String.format("%s%04d", SYMBOL_PREFIX, i));
+            }
+            publish(broker.getBrokersAsString(), symbols, rounds);
+            long finalPrice = rounds * 100L;
+            long deadline = System.nanoTime() + SETTLE_TIMEOUT.toNanos();
+            while (!settled(nodes, symbols, finalPrice) && System.nanoTime() - deadline < 0) {
+                Thread.sleep(200);
+            }
+            return report(nodes, symbols, finalPrice, mode);
+        } finally {
+            readers.shutdownNow();
+            nodes.forEach(node -> SpringApplication.exit(node.context));
+            broker.destroy();
+        }
+    }
+
+    // Command-line arguments, so they override application.yml
+    private Node start(String id, String mode, String brokers) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MarketStreamApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.kafka.bootstrap-servers=" + brokers,
+                "--app.cluster.node-id=" + id,
+                "--app.cluster.fan-out=" + mode,
+                "--app.kafka.topic.market-data=" + TOPIC,
+                "--app.kafka.topic.partitions=" + PARTITIONS,
+                "--app.kafka.consumer.batch-listener=true",
+                "--app.producer.enabled=false",
+                "--app.journal.enabled=false",
+                "--app.order-book.enabled=false",
+                "--app.warm-start.enabled=false",
+                "--logging.level.com.marketstream=INFO");
+        Node node = new Node(id, context);
+        System.out.printf("Started %s on port %d%n", id, node.port);
+        return node;
+    }
+
+    // Broadcast: every node holds every partition. Partitioned: the nodes hold them between them
+    private void awaitAssignment(List<Node> nodes, String mode) throws InterruptedException {
+        boolean broadcast = "broadcast".equalsIgnoreCase(mode);
+        long deadline = System.nanoTime() + ASSIGNMENT_TIMEOUT.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            int total = 0;
+            boolean everyNode = true;
+            for (Node node : nodes) {
+                int assigned = assignedPartitions(node);
+                total += assigned;
+                everyNode &= assigned == PARTITIONS;
+            }
+            if (broadcast ? everyNode : total == PARTITIONS) {
+                return;
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Partitions were not assigned within " + ASSIGNMENT_TIMEOUT);
+    }
+
+    private static int assignedPartitions(Node node) {
+        MessageListenerContainer container = node.context.getBean(KafkaListenerEndpointRegistry.class)
+                .getListenerContainer(LISTENER_ID);
+        Collection<TopicPartition> assigned = container != null ? container.getAssignedPartitions() : null;
+        return assigned == null ? 0 : (int) assigned.stream().filter(partition -> TOPIC.equals(partition.topic())).count();
+    }
+
+    // Returns once the server registered the stream: it writes headers and a heartbeat after registering
+    private void openStream(Node node) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + node.port + "/api/market-data/stream?format=ndjson")).build();
+        HttpResponse<Stream<String>> response = http.send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(node.id + " refused the stream: " + response.statusCode());
+        }
+        readers.submit(() -> response.body().forEach(line -> record(node, line)));
+    }
+
+    private void record(Node node, String line) {
+        if (line.isBlank()) {
+            return;
+        }
+        try {
+            JsonNode data = mapper.readTree(line);
+            String symbol = data.path("symbol").asText();
+            if (symbol.startsWith(SYMBOL_PREFIX)) {
+                node.streamed.put(symbol, data.path("price").decimalValue()
+                        .setScale(PRICE_SCALE).unscaledValue().longValueExact());
+            }
+        } catch (IOException | ArithmeticException e) {
+            System.err.printf("%s: unreadable stream line %s%n", node.id, line);
+        }
+    }
+
+    // Rounds of one tick per symbol, prices 1.00, 2.00, ... so the last round is each symbol's final value
+    private static void publish(String brokers, List<String> symbols, int rounds) {
+        Map<String, Object> props = Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers,
+                ProducerConfig.LINGER_MS_CONFIG, 5);
+        TickSerializer serializer = new TickSerializer(JsonMapper.builder().findAndAddModules().build(),
+                Map.of(TOPIC, WireFormat.BINARY));
+        try (KafkaProducer<String, Tick> producer = new KafkaProducer<>(props, new StringSerializer(), serializer)) {
+            Tick tick = new Tick(null, PRICE_SCALE);
+            for (int round = 1; round <= rounds; round++) {
+                for (String symbol : symbols) {
+                    long price = round * 100L;
+                    tick.setSymbol(symbol);
+                    tick.setPrice(price);
+                    tick.setBidPrice(price - 1);
+                    tick.setAskPrice(price + 1);
+                    tick.setVolume(round);
+                    tick.setTimestampNanos(System.currentTimeMillis() * 1_000_000L);
+                    // Serialized inside send(), so the tick can be reused right away
+                    producer.send(new ProducerRecord<>(TOPIC, symbol, tick));
+                }
+            }
+            producer.flush();
+        }
+        System.out.printf("Published %d rounds over %d symbols%n", rounds, symbols.size());
+    }
+
+    private static boolean settled(List<Node> nodes, List<String> symbols, long finalPrice) {
+        for (Node node : nodes) {
+            if (cached(node, symbols, finalPrice) < symbols.size() || streamed(node, symbols, finalPrice) < symbols.size()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int cached(Node node, List<String> symbols, long finalPrice) {
+        MarketDataCache cache = node.context.getBean(MarketDataCache.class);
+        Tick scratch = new Tick();
+        int count = 0;
+        for (String symbol : symbols) {
+            if (cache.getTick(symbol, scratch) && scratch.getPrice() == finalPrice) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int streamed(Node node, List<String> symbols, long finalPrice) {
+        int count = 0;
+        for (String symbol : symbols) {
+            Long price = node.streamed.get(symbol);
+            if (price != null && price == finalPrice) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean report(List<Node> nodes, List<String> symbols, long finalPrice, String mode) {
+        boolean complete = true;
+        System.out.printf("%n%-10s %-28s %18s %18s%n", "node", "consumer group", "final in cache", "final at client");
+        for (Node node : nodes) {
+            int cached = cached(node, symbols, finalPrice);
+            int streamed = streamed(node, symbols, finalPrice);
+            complete &= cached == symbols.size() && streamed == symbols.size();
+            System.out.printf("%-10s %-28s %12d/%-5d %12d/%-5d%n", node.id,
+                    node.context.getBean(ClusterNode.class).getConsumerGroup(), cached, symbols.size(), streamed,
+                    symbols.size());
+        }
+        System.out.printf("%n%s fan-out over %d nodes: %s%n", mode, nodes.size(),
+                complete ? "every client has every symbol's final value" : "some clients are missing symbols");
+        return complete;
+    }
+}
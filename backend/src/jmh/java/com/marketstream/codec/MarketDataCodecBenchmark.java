@@ -0,0 +1,79 @@
+package com.marketstream.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// JSON (the previous String path) vs the binary codec, ns per message; payload sizes are printed at setup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MarketDataCodecBenchmark {
+    private static final String TOPIC = "market-data-topic";
+
+    private ObjectMapper objectMapper;
+    private TickSerializer jsonSerializer;
+    private TickSerializer binarySerializer;
+    private TickDeserializer deserializer;
+    private MarketData marketData;
+    private Tick tick;
+    private String jsonString;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        jsonSerializer = new TickSerializer(objectMapper, Map.of(TOPIC, WireFormat.JSON));
+        binarySerializer = new TickSerializer(objectMapper, Map.of(TOPIC, WireFormat.BINARY));
+        deserializer = new TickDeserializer(objectMapper);
+
+        marketData = new MarketData("AAPL", new BigDecimal("151.37"), new BigDecimal("151.12"),
+                new BigDecimal("151.62"), 4821L, LocalDateTime.now());
+        marketData.setChange(new BigDecimal("1.37"));
+        marketData.setChangePercent(new BigDecimal("0.91"));
+        tick = Tick.fromMarketData(marketData);
+
+        jsonString = objectMapper.writeValueAsString(marketData);
+        jsonBytes = jsonSerializer.serialize(TOPIC, tick);
+        binaryBytes = binarySerializer.serialize(TOPIC, tick);
+        System.out.printf("%nPayload bytes per message: json=%d binary=%d%n", jsonBytes.length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public String jsonStringEncode() throws Exception {
+        return objectMapper.writeValueAsString(marketData);
+    }
+
+    @Benchmark
+    public MarketData jsonStringDecode() throws Exception {
+        return objectMapper.readValue(jsonString, MarketData.class);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(TOPIC, tick);
+    }
+
+    @Benchmark
+    public Tick jsonDeserialize() {
+        return deserializer.deserialize(TOPIC, jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binarySerializer.serialize(TOPIC, tick);
+    }
+
+    @Benchmark
+    public Tick binaryDeserialize() {
+        return deserializer.deserialize(TOPIC, binaryBytes);
+    }
+}
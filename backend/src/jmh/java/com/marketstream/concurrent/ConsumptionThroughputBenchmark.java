@@ -0,0 +1,72 @@
+package com.marketstream.concurrent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.marketstream.cache.OffHeapTickStore;
+import com.marketstream.codec.TickBinaryCodec;
+import com.marketstream.model.Tick;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Consumer-side work for one poll (decode, off-heap cache update, JSON encode for fan-out) spread over 1, 4 and 16
+// symbol-keyed lanes; throughput is per record, so the lane counts compare directly
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConsumptionThroughputBenchmark {
+    private static final int SYMBOLS = 1_000;
+    private static final int BATCH = 2_000;
+
+    @Param({"1", "4", "16"})
+    public int workers;
+
+    private StripedExecutor executor;
+    private ObjectMapper objectMapper;
+    private OffHeapTickStore store;
+    private byte[][] records;
+    private int[] symbolIds;
+    private List<Integer> batch;
+    private final LongAdder encodedBytes = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = new StripedExecutor("bench-worker", workers, false);
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        store = new OffHeapTickStore(SYMBOLS);
+        records = new byte[BATCH][];
+        symbolIds = new int[BATCH];
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            int id = i % SYMBOLS;
+            Tick tick = new Tick(String.format("SYM%06d", id), 2);
+            tick.setPrice(100_00L + i);
+            tick.setBidPrice(100_00L + i - 1);
+            tick.setAskPrice(100_00L + i + 1);
+            tick.setVolume(1_000L + i);
+            tick.setTimestampNanos(System.currentTimeMillis() * 1_000_000L);
+            records[i] = TickBinaryCodec.encode(tick);
+            symbolIds[i] = id;
+            batch.add(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long dispatchBatch() throws Exception {
+        executor.forEach(batch, index -> symbolIds[index], index -> {
+            Tick tick = TickBinaryCodec.decode(records[index]);
+            store.put(symbolIds[index], tick);
+            encodedBytes.add(objectMapper.writeValueAsBytes(tick.toMarketData()).length);
+        });
+        return encodedBytes.sum();
+    }
+}
@@ -0,0 +1,72 @@
+package com.marketstream.history;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// History queries against one series holding 1M one-second bars (about 11.6 days), by range length: a range anywhere
+// in the series, which has to find its chunk first, and the latest range, which includes the open bar
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BarQueryBenchmark {
+    private static final int BARS = 1_000_000;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long BASE = TimeUnit.DAYS.toNanos(20_000);
+    private static final int OFFSETS = 4096;
+
+    @Param({"60", "3600"})
+    public int rangeBars;
+
+    private BarSeries series;
+    private long[] froms;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        series = new BarSeries(BarInterval.ONE_SECOND, 1024, BARS);
+        for (int i = 0; i < BARS; i++) {
+            long start = BASE + i * SECOND;
+            series.add(start, 10_000L + i % 500, 2, 100);
+            series.add(start + SECOND / 2, 10_000L + i % 300, 2, 50);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        froms = new long[OFFSETS];
+        for (int i = 0; i < OFFSETS; i++) {
+            froms[i] = BASE + random.nextInt(BARS - rangeBars) * SECOND;
+        }
+        System.out.printf("%nBars held: %d%n", series.barCount());
+    }
+
+    @Benchmark
+    public List<OhlcvBar> randomRange() {
+        long from = froms[next];
+        next = (next + 1) & (OFFSETS - 1);
+        return series.query(from, from + rangeBars * SECOND, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<OhlcvBar> latestRange() {
+        long to = BASE + BARS * SECOND;
+        return series.query(to - rangeBars * SECOND, to, Integer.MAX_VALUE);
+    }
+
+    // Cost the consumer pays per tick and interval
+    @State(Scope.Thread)
+    public static class Aggregation {
+        BarSeries series = new BarSeries(BarInterval.ONE_SECOND, 1024, BARS);
+        long timestamp = BASE;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean aggregate(Aggregation state) {
+        // Ten ticks per bar
+        state.timestamp += SECOND / 10;
+        return state.series.add(state.timestamp, 10_000L + (state.timestamp & 255), 2, 100);
+    }
+}
@@ -0,0 +1,125 @@
+package com.marketstream.service;
+
+import ch.qos.logback.classic.Logger;
+import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// MarketDataCache put/get per tier: in-memory (off-heap only), write-behind (off-heap with a Redis flusher) and
+// redis (synchronous Redis with off-heap fallback). Redis is a map-backed Mockito mock, so the redis numbers are
+// this code's overhead plus the mock's, without any network round trip
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MarketDataCacheBenchmark {
+    private static final int SYMBOLS = 1_000;
+
+    @Param({"in-memory", "write-behind", "redis"})
+    public String tier;
+
+    private MarketDataCache cache;
+    private Tick[] ticks;
+    private String[] symbols;
+    private Tick scratch;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger("com.marketstream")).setLevel(ch.qos.logback.classic.Level.INFO);
+        SymbolRegistry registry = new SymbolRegistry();
+        ticks = new Tick[SYMBOLS];
+        symbols = new String[SYMBOLS];
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols[i] = String.format("SYM%06d", i);
+            registry.add(symbols[i], new BigDecimal("100.00"), SymbolRegistry.SYNTHETIC_GROUP);
+            Tick tick = new Tick(symbols[i], 2);
+            tick.setPrice(10_000L + i);
+            tick.setBidPrice(9_995L + i);
+            tick.setAskPrice(10_005L + i);
+            tick.setVolume(100L * i);
+            tick.setTimestampNanos(System.currentTimeMillis() * 1_000_000L);
+            ticks[i] = tick;
+        }
+        scratch = new Tick();
+
+        cache = new MarketDataCache();
+        ReflectionTestUtils.setField(cache, "symbolRegistry", registry);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "primaryTier", "redis".equals(tier) ? "redis" : "off-heap");
+        ReflectionTestUtils.setField(cache, "offHeapCapacity", SYMBOLS);
+        ReflectionTestUtils.setField(cache, "flushIntervalMs", 100L);
+        ReflectionTestUtils.setField(cache, "flushBatchSize", 500);
+        ReflectionTestUtils.setField(cache, "invalidationBatchSize", 500);
+        if (!"in-memory".equals(tier)) {
+            ReflectionTestUtils.setField(cache, "redisTemplate", mockRedis());
+        }
+        cache.init();
+        for (Tick tick : ticks) {
+            cache.cacheTick(tick);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.shutdown();
+    }
+
+    @Benchmark
+    public void put() {
+        cache.cacheTick(ticks[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean getTick() {
+        return cache.getTick(symbols[nextIndex()], scratch);
+    }
+
+    // The REST read path: a MarketData DTO, from Redis first in redis mode
+    @Benchmark
+    public MarketData getMarketData() {
+        return cache.getMarketData(symbols[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == SYMBOLS ? 0 : index + 1;
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisTemplate<String, MarketData> mockRedis() {
+        Map<String, MarketData> store = new ConcurrentHashMap<>();
+        RedisTemplate<String, MarketData> template = mock(RedisTemplate.class);
+        ValueOperations<String, MarketData> ops = mock(ValueOperations.class);
+        when(template.opsForValue()).thenReturn(ops);
+        doAnswer(invocation -> store.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(ops).set(anyString(), any(MarketData.class), any(Duration.class));
+        when(ops.get(anyString())).thenAnswer(invocation -> store.get(invocation.<String>getArgument(0)));
+        // Write-behind flushes through a pipeline; run its callback against the same mock
+        when(template.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(template);
+            return List.of();
+        });
+        return template;
+    }
+}
@@ -0,0 +1,66 @@
+package com.marketstream.service;
+
+import ch.qos.logback.classic.Logger;
+import com.marketstream.latency.LatencyTracker;
+import com.marketstream.loadgen.LoadGenerator;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import com.marketstream.transport.TickPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// One scheduled generateMarketData() cycle over the universe, with a transport that acks immediately,
+// so only generation, stamping and the publish call path are measured
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MarketDataProducerBenchmark {
+    private static final CompletableFuture<Void> ACKED = CompletableFuture.completedFuture(null);
+
+    @Param({"10", "1000"})
+    public int symbols;
+
+    private MarketDataProducer producer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Logback's unconfigured default is DEBUG, which would log every acked tick
+        ((Logger) LoggerFactory.getLogger("com.marketstream")).setLevel(ch.qos.logback.classic.Level.INFO);
+        SymbolRegistry registry = new SymbolRegistry();
+        for (int i = 0; i < symbols; i++) {
+            registry.add(String.format("SYM%06d", i), new BigDecimal("100.00"), SymbolRegistry.SYNTHETIC_GROUP);
+        }
+        LatencyTracker latencyTracker = new LatencyTracker();
+        ReflectionTestUtils.setField(latencyTracker, "symbolRegistry", registry);
+        ReflectionTestUtils.setField(latencyTracker, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(latencyTracker, "enabled", true);
+
+        producer = new MarketDataProducer();
+        ReflectionTestUtils.setField(producer, "tickPublisher", new TickPublisher() {
+            @Override
+            public CompletableFuture<?> publish(Tick tick) {
+                return ACKED;
+            }
+
+            @Override
+            public String name() {
+                return "noop";
+            }
+        });
+        ReflectionTestUtils.setField(producer, "symbolRegistry", registry);
+        // Never started, so it never claims the feed
+        ReflectionTestUtils.setField(producer, "loadGenerator", new LoadGenerator());
+        ReflectionTestUtils.setField(producer, "latencyTracker", latencyTracker);
+    }
+
+    @Benchmark
+    public void generateCycle() {
+        producer.generateMarketData();
+    }
+}
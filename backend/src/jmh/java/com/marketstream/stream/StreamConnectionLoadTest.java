@@ -0,0 +1,226 @@
+package com.marketstream.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection load test against a running server: holds N SSE streams, then N STOMP-over-SockJS
+ * sessions, and reports what each costs the server, read from its actuator metrics: connections it
+ * counts, heap and live threads. The heap figure is the minimum over a sampling window, which
+ * approximates the live set after a young collection; it is an estimate, not an exact retained size.
+ * <p>
+ * Start the server with the load generator running, then
+ * {@code ./gradlew streamLoadTest -PloadTestUrl=http://localhost:8090 -PloadTestConnections=2000}.
+ * Optional {@code -PloadTestSymbols=AAPL,MSFT} subscribes both transports to those symbols instead of
+ * everything. Raise the client's open-file limit (ulimit -n) above the connection count.
+ */
+public final class StreamConnectionLoadTest {
+    private static final Duration HOLD = Duration.ofSeconds(15);
+    private static final int HEAP_SAMPLES = 10;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int connections;
+    private final List<String> symbols;
+    private final HttpClient http;
+    private final ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder messages = new LongAdder();
+
+    private StreamConnectionLoadTest(String baseUrl, int connections, List<String> symbols) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.connections = connections;
+        this.symbols = symbols;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(readers)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8090";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        List<String> symbols = args.length > 2 && !args[2].isBlank() ? List.of(args[2].split(",")) : List.of();
+        new StreamConnectionLoadTest(baseUrl, connections, symbols).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("%d connections per transport against %s, symbols: %s%n", connections, baseUrl,
+                symbols.isEmpty() ? "all" : symbols);
+        System.out.printf("%-8s %8s %8s %12s %12s %10s %14s%n", "path", "opened", "held", "heap MB", "KB/conn",
+                "threads", "msgs/s/conn");
+        measure("sse", "marketstream.stream.connections", this::openSse);
+        measure("sockjs", "marketstream.websocket.sessions", this::openSockJs);
+        readers.shutdownNow();
+    }
+
+    private interface Opener {
+        AutoCloseable open() throws Exception;
+    }
+
+    private void measure(String path, String connectionGauge, Opener opener) throws Exception {
+        double heapBefore = minimumHeap();
+        double threadsBefore = metric("jvm.threads.live", null);
+        List<AutoCloseable> open = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                try {
+                    open.add(opener.open());
+                } catch (Exception e) {
+                    System.out.printf("%s: connection %d failed (%s); measuring the %d that opened%n", path, i,
+                            e.getMessage(), open.size());
+                    break;
+                }
+            }
+            messages.reset();
+            long start = System.nanoTime();
+            TimeUnit.MILLISECONDS.sleep(HOLD.toMillis());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double received = messages.sum();
+            double held = metric(connectionGauge, null);
+            double threads = metric("jvm.threads.live", null) - threadsBefore;
+            double heap = minimumHeap() - heapBefore;
+            System.out.printf("%-8s %8d %8.0f %12.1f %12.1f %10.0f %14.1f%n", path, open.size(), held,
+                    heap / (1024 * 1024), open.isEmpty() ? 0 : heap / 1024 / open.size(), threads,
+                    open.isEmpty() ? 0 : received / seconds / open.size());
+        } finally {
+            for (AutoCloseable connection : open) {
+                try {
+                    connection.close();
+                } catch (Exception ignored) {
+                    // Already gone
+                }
+            }
+            // Lets the server notice the disconnects before the next path is measured
+            TimeUnit.SECONDS.sleep(5);
+        }
+    }
+
+    private AutoCloseable openSse() throws Exception {
+        String query = symbols.isEmpty() ? "" : "?symbols=" + String.join(",", symbols);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/market-data/stream" + query))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        InputStream body = response.body();
+        readers.submit(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("data:")) {
+                        messages.increment();
+                    }
+                }
+            } catch (IOException ignored) {
+                // Closed by the test
+            }
+            return null;
+        });
+        return body;
+    }
+
+    private AutoCloseable openSockJs() throws Exception {
+        String wsBase = baseUrl.replaceFirst("^http", "ws");
+        // SockJS WebSocket transport: /ws/{server}/{session}/websocket, frames are "o", "h" and a["..."]
+        URI uri = URI.create(wsBase + "/ws/000/" + UUID.randomUUID().toString().replace("-", "") + "/websocket");
+        WebSocket socket = http.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(uri, new StompListener())
+                .get(10, TimeUnit.SECONDS);
+        return () -> socket.sendClose(WebSocket.NORMAL_CLOSURE, "").get(5, TimeUnit.SECONDS);
+    }
+
+    private class StompListener implements WebSocket.Listener {
+        private final StringBuilder partial = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String frame = partial.toString();
+                partial.setLength(0);
+                try {
+                    handle(socket, frame);
+                } catch (IOException e) {
+                    socket.abort();
+                }
+            }
+            socket.request(1);
+            return null;
+        }
+
+        private void handle(WebSocket socket, String frame) throws IOException {
+            if (frame.equals("o")) {
+                send(socket, "CONNECT\naccept-version:1.2\nheart-beat:0,0\n\n\u0000");
+            } else if (frame.startsWith("a")) {
+                for (JsonNode message : MAPPER.readTree(frame.substring(1))) {
+                    String stomp = message.asText();
+                    if (stomp.startsWith("CONNECTED")) {
+                        subscribe(socket);
+                    } else if (stomp.startsWith("MESSAGE")) {
+                        messages.increment();
+                    }
+                }
+            }
+        }
+
+        private void subscribe(WebSocket socket) throws IOException {
+            if (symbols.isEmpty()) {
+                send(socket, "SUBSCRIBE\nid:sub-0\ndestination:/topic/market-data/all\n\n\u0000");
+                return;
+            }
+            for (int i = 0; i < symbols.size(); i++) {
+                send(socket, "SUBSCRIBE\nid:sub-" + i + "\ndestination:/topic/market-data/"
+                        + symbols.get(i).trim().toUpperCase() + "\n\n\u0000");
+            }
+        }
+
+        private void send(WebSocket socket, String stompFrame) throws IOException {
+            socket.sendText(MAPPER.writeValueAsString(List.of(stompFrame)), true).join();
+        }
+    }
+
+    // Lowest heap reading over the sampling window, one per second
+    private double minimumHeap() throws Exception {
+        double minimum = Double.MAX_VALUE;
+        for (int i = 0; i < HEAP_SAMPLES; i++) {
+            minimum = Math.min(minimum, metric("jvm.memory.used", "area:heap"));
+            TimeUnit.SECONDS.sleep(1);
+        }
+        return minimum;
+    }
+
+    private double metric(String name, String tag) throws Exception {
+        String url = baseUrl + "/actuator/metrics/" + name + (tag != null ? "?tag=" + tag : "");
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return Double.NaN;
+        }
+        return MAPPER.readTree(response.body()).path("measurements").path(0).path("value").asDouble(Double.NaN);
+    }
+}
@@ -0,0 +1,80 @@
+package com.marketstream.transport;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.marketstream.codec.TickSerializer;
+import com.marketstream.codec.WireFormat;
+import com.marketstream.model.Tick;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Each producer profile against a single-node embedded broker: fire-and-forget throughput, and the latency of a send
+// that waits for its ack. Absolute numbers are loopback numbers; the gap between profiles is what carries over
+@State(Scope.Benchmark)
+@Fork(1)
+public class ProducerProfileBenchmark {
+    private static final String TOPIC = "profile-bench";
+    private static final int SYMBOLS = 100;
+
+    @Param({"lowest-latency", "balanced", "max-throughput"})
+    public String profile;
+
+    private EmbeddedKafkaBroker broker;
+    private KafkaProducer<String, Tick> producer;
+    private Tick[] ticks;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        broker = new EmbeddedKafkaBroker(1, false, 3, TOPIC);
+        broker.afterPropertiesSet();
+        Map<String, Object> props = ProducerProfile.fromConfig(profile).producerProps();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        producer = new KafkaProducer<>(props, new StringSerializer(),
+                new TickSerializer(JsonMapper.builder().findAndAddModules().build(), Map.of(TOPIC, WireFormat.BINARY)));
+        ticks = new Tick[SYMBOLS];
+        for (int i = 0; i < SYMBOLS; i++) {
+            Tick tick = new Tick(String.format("SYM%06d", i), 2);
+            tick.setPrice(10_000L + i);
+            tick.setBidPrice(9_995L + i);
+            tick.setAskPrice(10_005L + i);
+            tick.setVolume(100L * i);
+            ticks[i] = tick;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        producer.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object sendAsync() {
+        Tick tick = nextTick();
+        return producer.send(new ProducerRecord<>(TOPIC, tick.getSymbol(), tick));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object sendAndAwait() throws Exception {
+        Tick tick = nextTick();
+        return producer.send(new ProducerRecord<>(TOPIC, tick.getSymbol(), tick)).get();
+    }
+
+    private Tick nextTick() {
+        Tick tick = ticks[next];
+        next = (next + 1) % SYMBOLS;
+        tick.setTimestampNanos(System.currentTimeMillis() * 1_000_000L);
+        return tick;
+    }
+}
@@ -0,0 +1,103 @@
+package com.marketstream.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// SimpMessagingTemplate through a real SimpleBrokerMessageHandler to N subscribed sessions, with synchronous
+// channels so the whole fan-out runs on the benchmark thread: converting the DTO on every send vs sending the
+// pre-encoded bytes the consumer produces. The outbound channel only counts what reaches it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BrokerFanOutBenchmark {
+    private static final String SYMBOL_DESTINATION = "/topic/market-data/AAPL";
+    private static final String ALL_DESTINATION = "/topic/market-data/all";
+
+    @Param({"10", "100", "1000"})
+    public int subscribers;
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate template;
+    private ObjectMapper objectMapper;
+    private MarketData marketData;
+    private byte[] encoded;
+    private final LongAdder delivered = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        outbound.subscribe(message -> delivered.increment());
+        broker = new SimpleBrokerMessageHandler(inbound, outbound, brokerChannel, List.of("/topic"));
+        broker.start();
+        for (int i = 0; i < subscribers; i++) {
+            broker.handleMessage(subscribe("session-" + i, "sub-0", SYMBOL_DESTINATION));
+            broker.handleMessage(subscribe("session-" + i, "sub-1", ALL_DESTINATION));
+        }
+        template = new SimpMessagingTemplate(brokerChannel);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        template.setMessageConverter(converter);
+
+        marketData = new MarketData("AAPL", new BigDecimal("151.37"), new BigDecimal("151.12"),
+                new BigDecimal("151.62"), 4821L, LocalDateTime.now());
+        marketData.setChange(new BigDecimal("1.37"));
+        marketData.setChangePercent(new BigDecimal("0.91"));
+        encoded = objectMapper.writeValueAsBytes(Tick.fromMarketData(marketData).toMarketData());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public long convertAndSend() {
+        template.convertAndSend(SYMBOL_DESTINATION, marketData);
+        template.convertAndSend(ALL_DESTINATION, marketData);
+        return delivered.sum();
+    }
+
+    @Benchmark
+    public long sendPreEncoded() {
+        template.send(SYMBOL_DESTINATION, preEncoded());
+        template.send(ALL_DESTINATION, preEncoded());
+        return delivered.sum();
+    }
+
+    // Same as MarketDataConsumer.preEncoded
+    private Message<byte[]> preEncoded() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(encoded, accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,74 @@
+package com.marketstream.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Cost of fanning one tick out to N sessions on two destinations: encode per session vs encode once
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FanOutBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int subscribers;
+
+    private ObjectMapper objectMapper;
+    private Tick tick;
+    private String[] sessionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        MarketData marketData = new MarketData("AAPL", new BigDecimal("151.37"), new BigDecimal("151.12"),
+                new BigDecimal("151.62"), 4821L, LocalDateTime.now());
+        marketData.setChange(new BigDecimal("1.37"));
+        marketData.setChangePercent(new BigDecimal("0.91"));
+        tick = Tick.fromMarketData(marketData);
+        sessionIds = new String[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            sessionIds[i] = "session-" + i;
+        }
+    }
+
+    // What the simple broker path did: convert the DTO for every destination and session
+    @Benchmark
+    public void encodePerSession(Blackhole blackhole) throws Exception {
+        for (String sessionId : sessionIds) {
+            blackhole.consume(message(sessionId, "/topic/market-data/AAPL",
+                    objectMapper.writeValueAsBytes(tick.toMarketData())));
+            blackhole.consume(message(sessionId, "/topic/market-data/all",
+                    objectMapper.writeValueAsBytes(tick.toMarketData())));
+        }
+    }
+
+    @Benchmark
+    public void encodeOnce(Blackhole blackhole) throws Exception {
+        EncodedTick encoded = new EncodedTick(tick.getSymbol(), 1L,
+                objectMapper.writeValueAsBytes(tick.toMarketData()), null);
+        for (String sessionId : sessionIds) {
+            blackhole.consume(message(sessionId, "/topic/market-data/AAPL", encoded.getPayload()));
+            blackhole.consume(message(sessionId, "/topic/market-data/all", encoded.getPayload()));
+        }
+    }
+
+    private static Message<byte[]> message(String sessionId, String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,43 @@
+package com.marketstream.book;
+
+import java.util.List;
+
+// "snapshot": the top levels of each side, best first; "delta": only the levels that changed since the previous message
+public class BookDepth {
+    public static final String SNAPSHOT = "snapshot";
+    public static final String DELTA = "delta";
+
+    private final String type;
+    private final String symbol;
+    private final long seq;
+    private final List<BookLevel> bids;
+    private final List<BookLevel> asks;
+
+    public BookDepth(String type, String symbol, long seq, List<BookLevel> bids, List<BookLevel> asks) {
+        this.type = type;
+        this.symbol = symbol;
+        this.seq = seq;
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public List<BookLevel> getBids() {
+        return bids;
+    }
+
+    public List<BookLevel> getAsks() {
+        return asks;
+    }
+}
@@ -0,0 +1,22 @@
+package com.marketstream.book;
+
+import java.math.BigDecimal;
+
+public class BookLevel {
+    private final BigDecimal price;
+    // 0 in a delta means the level left the published depth
+    private final long size;
+
+    public BookLevel(BigDecimal price, long size) {
+        this.price = price;
+        this.size = size;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,78 @@
+package com.marketstream.book;
+
+import java.util.Arrays;
+
+// One side of a book as parallel primitive arrays sorted so the best level is last. Keys are prices
+// times sign (1 for bids, -1 for asks), so both sides ascend towards the best level and share one
+// binary search. Most updates land near the top of the book, where an insert or delete shifts little.
+final class BookSide {
+    private final long sign;
+    private final long[] keys;
+    private final long[] sizes;
+    private int count;
+
+    BookSide(boolean bid, int maxLevels) {
+        this.sign = bid ? 1L : -1L;
+        this.keys = new long[maxLevels];
+        this.sizes = new long[maxLevels];
+    }
+
+    // Sets the level's size; a new level worse than every level of a full side is ignored
+    boolean set(long price, long size) {
+        long key = price * sign;
+        int index = Arrays.binarySearch(keys, 0, count, key);
+        if (index >= 0) {
+            if (sizes[index] == size) {
+                return false;
+            }
+            sizes[index] = size;
+            return true;
+        }
+        int insert = -index - 1;
+        if (count == keys.length) {
+            if (insert == 0) {
+                return false;
+            }
+            // Full: the worst level, at index 0, makes room
+            insert--;
+            System.arraycopy(keys, 1, keys, 0, insert);
+            System.arraycopy(sizes, 1, sizes, 0, insert);
+        } else {
+            System.arraycopy(keys, insert, keys, insert + 1, count - insert);
+            System.arraycopy(sizes, insert, sizes, insert + 1, count - insert);
+            count++;
+        }
+        keys[insert] = key;
+        sizes[insert] = size;
+        return true;
+    }
+
+    boolean remove(long price) {
+        int index = Arrays.binarySearch(keys, 0, count, price * sign);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+        System.arraycopy(sizes, index + 1, sizes, index, count - index - 1);
+        count--;
+        return true;
+    }
+
+    void clear() {
+        count = 0;
+    }
+
+    int levels() {
+        return count;
+    }
+
+    // Copies up to depth levels, best first; returns how many were copied
+    int top(int depth, long[] prices, long[] levelSizes) {
+        int n = Math.min(depth, count);
+        for (int i = 0; i < n; i++) {
+            prices[i] = keys[count - 1 - i] * sign;
+            levelSizes[i] = sizes[count - 1 - i];
+        }
+        return n;
+    }
+}
@@ -0,0 +1,94 @@
+package com.marketstream.book;
+
+import com.marketstream.model.BookUpdateBatch;
+
+// Level-2 book of one symbol; updates and the publisher's copies synchronize on the book
+final class OrderBook {
+    final String symbol;
+    final int priceScale;
+    private final BookSide bids;
+    private final BookSide asks;
+    // Incremented per applied change; deltas and snapshots carry it so clients can detect gaps
+    private long seq;
+    private boolean dirty;
+
+    // Publisher state: the top levels it last sent and when it last sent a snapshot. Only the publisher
+    // thread writes them; it updates published under the Depth's own lock so REST snapshots can copy it
+    final Depth published;
+    final Depth next;
+    long lastSnapshotNanos;
+
+    // Top of one book: best-first prices and sizes per side
+    static final class Depth {
+        final long[] bidPrices;
+        final long[] bidSizes;
+        final long[] askPrices;
+        final long[] askSizes;
+        int bidCount;
+        int askCount;
+        long seq;
+
+        Depth(int depth) {
+            bidPrices = new long[depth];
+            bidSizes = new long[depth];
+            askPrices = new long[depth];
+            askSizes = new long[depth];
+        }
+    }
+
+    OrderBook(String symbol, int priceScale, int maxLevels, int publishDepth) {
+        this.symbol = symbol;
+        this.priceScale = priceScale;
+        this.bids = new BookSide(true, maxLevels);
+        this.asks = new BookSide(false, maxLevels);
+        this.published = new Depth(publishDepth);
+        this.next = new Depth(publishDepth);
+    }
+
+    // Applies the whole batch under one lock; returns the number of updates that changed the book
+    synchronized int apply(BookUpdateBatch batch) {
+        int changed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (apply(batch.sideAt(i), batch.actionAt(i), batch.priceAt(i), batch.sizeAt(i))) {
+                changed++;
+            }
+        }
+        if (changed > 0) {
+            dirty = true;
+        }
+        return changed;
+    }
+
+    // Not synchronized: callers hold the lock, or own the book outright as the benchmark does
+    boolean apply(byte side, byte action, long price, long size) {
+        boolean changed;
+        if (action == BookUpdateBatch.CLEAR) {
+            changed = bids.levels() > 0 || asks.levels() > 0;
+            bids.clear();
+            asks.clear();
+        } else {
+            BookSide target = side == BookUpdateBatch.BID ? bids : asks;
+            changed = action == BookUpdateBatch.DELETE || size <= 0 ? target.remove(price) : target.set(price, size);
+        }
+        if (changed) {
+            seq++;
+        }
+        return changed;
+    }
+
+    // Copies the top levels into the given depth; returns false if nothing changed since the last call
+    synchronized boolean takeIfDirty(Depth into) {
+        if (!dirty) {
+            return false;
+        }
+        copyTo(into);
+        dirty = false;
+        return true;
+    }
+
+    synchronized void copyTo(Depth into) {
+        into.bidCount = bids.top(into.bidPrices.length, into.bidPrices, into.bidSizes);
+        into.askCount = asks.top(into.askPrices.length, into.askPrices, into.askSizes);
+        into.seq = seq;
+    }
+}
@@ -0,0 +1,256 @@
+package com.marketstream.book;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketstream.model.BookUpdateBatch;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level-2 order books per symbol, maintained from incremental price-level updates. Updates are
+ * applied on the transport's thread, a whole batch under the book's lock, into primitive sorted
+ * arrays ({@link BookSide}). Publishing is decoupled: every {@code publish-interval-ms} each book
+ * that changed sends the top {@code app.order-book.depth} levels to {@code /topic/order-book/{symbol}},
+ * as a delta against the previous message or, every {@code snapshot-interval-ms}, as a full
+ * snapshot. Clients start from {@code GET /api/order-book/{symbol}}, which serves the last published
+ * top levels and their seq rather than the live book, so the next delta applies to it exactly; they
+ * drop deltas whose seq is not above the snapshot's.
+ * <p>
+ * Book frames go through the simple broker rather than {@link com.marketstream.websocket.SessionDispatcher}:
+ * deltas only apply in sequence, so they cannot be conflated per session the way ticks are. They are
+ * already conflated at the source, at most one per changed book per publish interval, and a session
+ * that still cannot keep up hits the WebSocket send buffer and time limits
+ * ({@code app.websocket.send-buffer-limit-bytes}, {@code send-time-limit-ms}) and is closed; it then
+ * reconnects and starts again from a snapshot.
+ */
+@Component
+public class OrderBookEngine {
+    private static final Logger logger = LoggerFactory.getLogger(OrderBookEngine.class);
+    public static final String DESTINATION_PREFIX = "/topic/order-book/";
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${app.order-book.enabled:true}")
+    private boolean enabled;
+    @Value("${app.order-book.max-levels:200}")
+    private int maxLevels;
+    @Value("${app.order-book.depth:10}")
+    private int depth;
+    @Value("${app.order-book.snapshot-interval-ms:5000}")
+    private long snapshotIntervalMs;
+
+    // Per symbol id; copied on write, so a new book is only reachable once complete
+    private volatile OrderBook[] books = new OrderBook[64];
+    private Counter appliedCounter;
+    private Counter ignoredCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        appliedCounter = Counter.builder("marketstream.book.applied")
+                .description("Price-level updates that changed a book")
+                .register(meterRegistry);
+        ignoredCounter = Counter.builder("marketstream.book.ignored")
+                .description("Updates that changed nothing: deletes of missing levels, repeated sizes, levels beyond max-levels")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("marketstream.book.rejected")
+                .description("Batches whose price scale differs from the book's, or whose symbol the registry rejected")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void apply(BookUpdateBatch batch) {
+        if (!enabled || batch.size() == 0) {
+            return;
+        }
+        int id = batch.getSymbolId();
+        if (id < 0) {
+            id = symbolRegistry.intern(batch.getSymbol());
+            if (id == SymbolRegistry.UNKNOWN) {
+                rejectedCounter.increment();
+                return;
+            }
+            batch.setSymbolId(id);
+        }
+        OrderBook book = bookOf(id, batch);
+        if (book.priceScale != batch.getPriceScale()) {
+            rejectedCounter.increment();
+            logger.debug("Dropped {} book updates for {}: price scale {} instead of {}", batch.size(),
+                    batch.getSymbol(), batch.getPriceScale(), book.priceScale);
+            return;
+        }
+        int changed = book.apply(batch);
+        appliedCounter.increment(changed);
+        ignoredCounter.increment(batch.size() - changed);
+    }
+
+    // The last published top levels of the symbol's book (at most app.order-book.depth of them) as a
+    // snapshot, or null if it never received an update; the live book would not chain with the deltas
+    public BookDepth depth(String symbol, int levels) {
+        if (levels <= 0) {
+            throw new IllegalArgumentException("Depth must be positive");
+        }
+        int id = symbolRegistry.idOf(symbol);
+        OrderBook[] current = books;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            return null;
+        }
+        OrderBook book = current[id];
+        OrderBook.Depth top = new OrderBook.Depth(Math.min(levels, depth));
+        synchronized (book.published) {
+            copy(book.published, top);
+        }
+        return snapshot(book, top);
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-book.publish-interval-ms:100}")
+    public void publish() {
+        long now = System.nanoTime();
+        long snapshotNanos = TimeUnit.MILLISECONDS.toNanos(snapshotIntervalMs);
+        for (OrderBook book : books) {
+            if (book == null || !book.takeIfDirty(book.next)) {
+                continue;
+            }
+            boolean snapshot = book.lastSnapshotNanos == 0 || now - book.lastSnapshotNanos >= snapshotNanos;
+            BookDepth message = snapshot ? snapshot(book, book.next) : delta(book, book.published, book.next);
+            if (snapshot) {
+                book.lastSnapshotNanos = now;
+            }
+            // Changes below the published depth leave nothing to send
+            if (snapshot || !message.getBids().isEmpty() || !message.getAsks().isEmpty()) {
+                send(book.symbol, message);
+            }
+            synchronized (book.published) {
+                copy(book.next, book.published);
+            }
+        }
+    }
+
+    private void send(String symbol, BookDepth depth) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(depth);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize order book for symbol: {}", symbol, e);
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        messagingTemplate.send(DESTINATION_PREFIX + symbol, message);
+    }
+
+    private OrderBook bookOf(int id, BookUpdateBatch batch) {
+        OrderBook[] current = books;
+        OrderBook book = id < current.length ? current[id] : null;
+        return book != null ? book : create(id, batch);
+    }
+
+    // The first batch fixes the book's price scale
+    private synchronized OrderBook create(int id, BookUpdateBatch batch) {
+        OrderBook[] current = books;
+        if (id < current.length && current[id] != null) {
+            return current[id];
+        }
+        int length = id < current.length ? current.length : Math.max(current.length * 2, id + 1);
+        OrderBook[] next = Arrays.copyOf(current, length);
+        OrderBook book = new OrderBook(batch.getSymbol(), batch.getPriceScale(), maxLevels, depth);
+        next[id] = book;
+        books = next;
+        return book;
+    }
+
+    private static BookDepth snapshot(OrderBook book, OrderBook.Depth depth) {
+        List<BookLevel> bids = new ArrayList<>(depth.bidCount);
+        for (int i = 0; i < depth.bidCount; i++) {
+            bids.add(level(book, depth.bidPrices[i], depth.bidSizes[i]));
+        }
+        List<BookLevel> asks = new ArrayList<>(depth.askCount);
+        for (int i = 0; i < depth.askCount; i++) {
+            asks.add(level(book, depth.askPrices[i], depth.askSizes[i]));
+        }
+        return new BookDepth(BookDepth.SNAPSHOT, book.symbol, depth.seq, bids, asks);
+    }
+
+    private static BookDepth delta(OrderBook book, OrderBook.Depth previous, OrderBook.Depth current) {
+        List<BookLevel> bids = new ArrayList<>();
+        diff(book, previous.bidPrices, previous.bidSizes, previous.bidCount,
+                current.bidPrices, current.bidSizes, current.bidCount, bids);
+        List<BookLevel> asks = new ArrayList<>();
+        diff(book, previous.askPrices, previous.askSizes, previous.askCount,
+                current.askPrices, current.askSizes, current.askCount, asks);
+        return new BookDepth(BookDepth.DELTA, book.symbol, current.seq, bids, asks);
+    }
+
+    // Levels that are new or resized, then levels that left the depth with size 0; depth is small, so a scan is fine
+    private static void diff(OrderBook book, long[] oldPrices, long[] oldSizes, int oldCount,
+            long[] newPrices, long[] newSizes, int newCount, List<BookLevel> out) {
+        for (int i = 0; i < newCount; i++) {
+            int old = indexOf(oldPrices, oldCount, newPrices[i]);
+            if (old < 0 || oldSizes[old] != newSizes[i]) {
+                out.add(level(book, newPrices[i], newSizes[i]));
+            }
+        }
+        for (int i = 0; i < oldCount; i++) {
+            if (indexOf(newPrices, newCount, oldPrices[i]) < 0) {
+                out.add(level(book, oldPrices[i], 0L));
+            }
+        }
+    }
+
+    private static int indexOf(long[] prices, int count, long price) {
+        for (int i = 0; i < count; i++) {
+            if (prices[i] == price) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static BookLevel level(OrderBook book, long price, long size) {
+        return new BookLevel(BigDecimal.valueOf(price, book.priceScale), size);
+    }
+
+    // The best levels of from that fit into to
+    private static void copy(OrderBook.Depth from, OrderBook.Depth to) {
+        int bidCount = Math.min(from.bidCount, to.bidPrices.length);
+        int askCount = Math.min(from.askCount, to.askPrices.length);
+        System.arraycopy(from.bidPrices, 0, to.bidPrices, 0, bidCount);
+        System.arraycopy(from.bidSizes, 0, to.bidSizes, 0, bidCount);
+        System.arraycopy(from.askPrices, 0, to.askPrices, 0, askCount);
+        System.arraycopy(from.askSizes, 0, to.askSizes, 0, askCount);
+        to.bidCount = bidCount;
+        to.askCount = askCount;
+        to.seq = from.seq;
+    }
+}
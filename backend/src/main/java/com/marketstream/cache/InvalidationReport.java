@@ -0,0 +1,57 @@
+package com.marketstream.cache;
+
+public class InvalidationReport {
+    private final String scope;
+    private final int localEntries;
+    private final long redisKeys;
+    private final int redisBatches;
+    private final long durationMs;
+    private final boolean redisComplete;
+
+    public InvalidationReport(String scope, int localEntries, long redisKeys, int redisBatches,
+            long durationMs, boolean redisComplete) {
+        this.scope = scope;
+        this.localEntries = localEntries;
+        this.redisKeys = redisKeys;
+        this.redisBatches = redisBatches;
+        this.durationMs = durationMs;
+        this.redisComplete = redisComplete;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public int getLocalEntries() {
+        return localEntries;
+    }
+
+    public long getRedisKeys() {
+        return redisKeys;
+    }
+
+    public int getRedisBatches() {
+        return redisBatches;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    // False when Redis was unreachable or failed part-way; local entries are invalidated regardless
+    public boolean isRedisComplete() {
+        return redisComplete;
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidationReport{" +
+                "scope='" + scope + '\'' +
+                ", localEntries=" + localEntries +
+                ", redisKeys=" + redisKeys +
+                ", redisBatches=" + redisBatches +
+                ", durationMs=" + durationMs +
+                ", redisComplete=" + redisComplete +
+                '}';
+    }
+}
@@ -0,0 +1,128 @@
+package com.marketstream.cache;
+
+import com.marketstream.model.Tick;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-capacity last-value store in a direct ByteBuffer, one 72-byte record per symbol id.
+ * Each record is guarded by a seqlock: writers bump the sequence to odd, write the fields and
+ * release it as even; readers retry if the sequence was odd or changed while they copied.
+ * Readers never take a lock, so REST lookups cannot stall the consumer thread.
+ */
+public class OffHeapTickStore {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int SEQ = 0;
+    private static final int SCALE_AND_PRESENT = 8;
+    private static final int PRICE = 16;
+    private static final int BID = 24;
+    private static final int ASK = 32;
+    private static final int CHANGE = 40;
+    private static final int CHANGE_PERCENT = 48;
+    private static final int VOLUME = 56;
+    private static final int TIMESTAMP = 64;
+    public static final int RECORD_SIZE = 72;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+
+    public OffHeapTickStore(int capacity) {
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, RECORD_SIZE)).order(ByteOrder.nativeOrder());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void put(int id, Tick tick) {
+        int base = offset(id);
+        long seq = lockForWrite(base);
+        LONGS.set(buffer, base + SCALE_AND_PRESENT, ((long) tick.getPriceScale() << 32) | 1L);
+        LONGS.set(buffer, base + PRICE, tick.getPrice());
+        LONGS.set(buffer, base + BID, tick.getBidPrice());
+        LONGS.set(buffer, base + ASK, tick.getAskPrice());
+        LONGS.set(buffer, base + CHANGE, tick.getChange());
+        LONGS.set(buffer, base + CHANGE_PERCENT, tick.getChangePercent());
+        LONGS.set(buffer, base + VOLUME, tick.getVolume());
+        LONGS.set(buffer, base + TIMESTAMP, tick.getTimestampNanos());
+        LONGS.setRelease(buffer, base + SEQ, seq + 2);
+    }
+
+    // Copies the record into the caller's Tick; the symbol is left for the caller to set
+    public boolean get(int id, Tick into) {
+        if (id < 0 || id >= capacity) {
+            return false;
+        }
+        int base = offset(id);
+        while (true) {
+            long before = (long) LONGS.getAcquire(buffer, base + SEQ);
+            if ((before & 1L) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long scaleAndPresent = (long) LONGS.get(buffer, base + SCALE_AND_PRESENT);
+            long price = (long) LONGS.get(buffer, base + PRICE);
+            long bid = (long) LONGS.get(buffer, base + BID);
+            long ask = (long) LONGS.get(buffer, base + ASK);
+            long change = (long) LONGS.get(buffer, base + CHANGE);
+            long changePercent = (long) LONGS.get(buffer, base + CHANGE_PERCENT);
+            long volume = (long) LONGS.get(buffer, base + VOLUME);
+            long timestamp = (long) LONGS.get(buffer, base + TIMESTAMP);
+            VarHandle.acquireFence();
+            if ((long) LONGS.get(buffer, base + SEQ) != before) {
+                continue;
+            }
+            if ((scaleAndPresent & 1L) == 0) {
+                return false;
+            }
+            into.setPriceScale((int) (scaleAndPresent >>> 32));
+            into.setPrice(price);
+            into.setBidPrice(bid);
+            into.setAskPrice(ask);
+            into.setChange(change);
+            into.setChangePercent(changePercent);
+            into.setVolume(volume);
+            into.setTimestampNanos(timestamp);
+            return true;
+        }
+    }
+
+    public void remove(int id) {
+        if (id < 0 || id >= capacity) {
+            return;
+        }
+        int base = offset(id);
+        long seq = lockForWrite(base);
+        LONGS.set(buffer, base + SCALE_AND_PRESENT, 0L);
+        LONGS.setRelease(buffer, base + SEQ, seq + 2);
+    }
+
+    public void clear() {
+        for (int id = 0; id < capacity; id++) {
+            remove(id);
+        }
+    }
+
+    private int offset(int id) {
+        if (id < 0 || id >= capacity) {
+            throw new IllegalArgumentException("Symbol id " + id + " exceeds off-heap capacity " + capacity);
+        }
+        return id * RECORD_SIZE;
+    }
+
+    // CAS even -> odd so concurrent writers to the same slot serialize instead of interleaving
+    private long lockForWrite(int base) {
+        while (true) {
+            long seq = (long) LONGS.getVolatile(buffer, base + SEQ);
+            if ((seq & 1L) == 0 && LONGS.compareAndSet(buffer, base + SEQ, seq, seq + 1)) {
+                return seq;
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
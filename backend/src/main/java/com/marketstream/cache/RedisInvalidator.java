@@ -0,0 +1,105 @@
+package com.marketstream.cache;
+
+import com.marketstream.model.MarketData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Deletes market data keys without blocking Redis: SCAN walks the keyspace incrementally and
+ * UNLINK frees values on a background thread, both in bounded batches. Only keys under the
+ * cache prefix are touched, so other tenants of a shared database are unaffected.
+ */
+public class RedisInvalidator {
+    private static final Logger logger = LoggerFactory.getLogger(RedisInvalidator.class);
+
+    private final RedisTemplate<String, MarketData> redisTemplate;
+    private final int batchSize;
+    private final Counter unlinked;
+
+    public RedisInvalidator(RedisTemplate<String, MarketData> redisTemplate, MeterRegistry meterRegistry,
+            int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.batchSize = batchSize;
+        this.unlinked = Counter.builder("marketstream.cache.invalidation.unlinked")
+                .description("Redis keys removed by scoped invalidation")
+                .register(meterRegistry);
+    }
+
+    public Result unlinkMatching(String pattern) {
+        Result result = new Result();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(batchSize);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= batchSize) {
+                    unlink(batch, result);
+                    logger.debug("Invalidation of {} in progress: {} keys in {} batches",
+                            pattern, result.keys, result.batches);
+                }
+            }
+            unlink(batch, result);
+            result.complete = true;
+        } catch (RuntimeException e) {
+            logger.warn("Redis invalidation of {} stopped after {} keys", pattern, result.keys, e);
+        }
+        return result;
+    }
+
+    public Result unlinkKeys(Collection<String> keys) {
+        Result result = new Result();
+        try {
+            List<String> batch = new ArrayList<>(batchSize);
+            for (String key : keys) {
+                batch.add(key);
+                if (batch.size() >= batchSize) {
+                    unlink(batch, result);
+                }
+            }
+            unlink(batch, result);
+            result.complete = true;
+        } catch (RuntimeException e) {
+            logger.warn("Redis invalidation stopped after {} keys", result.keys, e);
+        }
+        return result;
+    }
+
+    private void unlink(List<String> batch, Result result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Long removed = redisTemplate.unlink(batch);
+        long count = removed != null ? removed : 0L;
+        result.keys += count;
+        result.batches++;
+        unlinked.increment(count);
+        batch.clear();
+    }
+
+    public static class Result {
+        private long keys;
+        private int batches;
+        private boolean complete;
+
+        public long getKeys() {
+            return keys;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.marketstream.cache;
+
+import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Coalescing write-behind from the local store to Redis. The listener thread only flips a
+ * per-symbol dirty flag; a background flusher picks up dirty symbols on a fixed interval,
+ * reads their latest value from the local store and writes them in pipelined batches.
+ * However many times a symbol ticks between flushes, Redis sees one write.
+ */
+public class RedisWriteBehind {
+    private static final Logger logger = LoggerFactory.getLogger(RedisWriteBehind.class);
+
+    private final RedisTemplate<String, MarketData> redisTemplate;
+    private final OffHeapTickStore localStore;
+    private final SymbolRegistry symbolRegistry;
+    private final String keyPrefix;
+    private final Duration expiry;
+    private final long flushIntervalMs;
+    private final int batchSize;
+
+    private final AtomicIntegerArray dirty;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter coalesced;
+    private final Counter written;
+    private final Counter dropped;
+    private final Timer flushTimer;
+    private final ScheduledExecutorService flusher;
+
+    public RedisWriteBehind(RedisTemplate<String, MarketData> redisTemplate, OffHeapTickStore localStore,
+            SymbolRegistry symbolRegistry, MeterRegistry meterRegistry, String keyPrefix, Duration expiry,
+            long flushIntervalMs, int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.localStore = localStore;
+        this.symbolRegistry = symbolRegistry;
+        this.keyPrefix = keyPrefix;
+        this.expiry = expiry;
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = batchSize;
+        this.dirty = new AtomicIntegerArray(localStore.capacity());
+        Gauge.builder("marketstream.cache.write_behind.queue_depth", pending, AtomicInteger::get)
+                .description("Symbols with a pending Redis write")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("marketstream.cache.write_behind.coalesced")
+                .description("Updates absorbed by an already pending write for the same symbol")
+                .register(meterRegistry);
+        this.written = Counter.builder("marketstream.cache.write_behind.written")
+                .description("Values written to Redis")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("marketstream.cache.write_behind.dropped")
+                .description("Values whose Redis write failed and were not retried")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("marketstream.cache.write_behind.flush")
+                .description("Latency of one pipelined Redis flush")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        flusher.shutdown();
+        try {
+            if (flusher.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS)) {
+                // Last pass so a clean shutdown does not lose the final interval's writes
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Called on the listener thread after the local store was updated; never touches Redis
+    public void markDirty(int id) {
+        if (dirty.getAndSet(id, 1) == 0) {
+            pending.incrementAndGet();
+        } else {
+            coalesced.increment();
+        }
+    }
+
+    // Drops a pending write so an invalidated symbol is not re-populated in Redis
+    public void cancel(int id) {
+        if (dirty.getAndSet(id, 0) == 1) {
+            pending.decrementAndGet();
+        }
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    void flush() {
+        try {
+            Map<String, MarketData> batch = new LinkedHashMap<>();
+            Tick scratch = new Tick();
+            int symbolCount = Math.min(symbolRegistry.size(), dirty.length());
+            for (int id = 0; id < symbolCount; id++) {
+                if (dirty.get(id) == 0 || dirty.getAndSet(id, 0) == 0) {
+                    continue;
+                }
+                pending.decrementAndGet();
+                // Cleared before reading, so an update racing with this read is flushed next round
+                String symbol = symbolRegistry.symbolOf(id);
+                if (symbol == null || !localStore.get(id, scratch)) {
+                    continue;
+                }
+                scratch.setSymbol(symbol);
+                batch.put(keyPrefix + symbol, scratch.toMarketData());
+                if (batch.size() >= batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Redis write-behind flush failed", e);
+        }
+    }
+
+    private void write(Map<String, MarketData> batch) {
+        long start = System.nanoTime();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, MarketData> ops = (RedisOperations<String, MarketData>) operations;
+                    batch.forEach((key, value) -> ops.opsForValue().set(key, value, expiry));
+                    return null;
+                }
+            });
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            // The next tick for each symbol marks it dirty again, so nothing is retried here
+            dropped.increment(batch.size());
+            logger.debug("Dropped {} Redis writes", batch.size(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
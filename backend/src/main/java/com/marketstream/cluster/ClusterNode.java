@@ -0,0 +1,66 @@
+package com.marketstream.cluster;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * How this instance shares the tick stream with the other nodes behind the same load balancer.
+ * <p>
+ * {@code partitioned} (the default): all nodes share one group and each sees only its partitions'
+ * symbols, which suits a single node or clients that are routed by symbol. {@code broadcast}: every
+ * node consumes every partition under a consumer group of its own, so each node holds the full
+ * conflated last-value state and can serve any client any symbol; WebSocket capacity grows by
+ * adding nodes.
+ * <p>
+ * A broadcast group is named after {@code app.cluster.node-id}, which must then be set to a value
+ * that is unique per instance and stable across restarts (a StatefulSet pod name, a fixed name per
+ * host and port). A derived id would change with every new pod or container, and each change would
+ * start a new group at the latest offset and leave the old one behind, so startup fails without one.
+ */
+@Component
+public class ClusterNode {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterNode.class);
+    private static final String SHARED_GROUP = "marketstream-consumer-group";
+    private static final String FAN_OUT_BROADCAST = "broadcast";
+    private static final String FAN_OUT_PARTITIONED = "partitioned";
+
+    @Value("${app.cluster.fan-out:partitioned}")
+    private String fanOut;
+    @Value("${app.cluster.node-id:}")
+    private String configuredNodeId;
+
+    private String nodeId;
+    private String consumerGroup;
+
+    @PostConstruct
+    void init() {
+        if (!FAN_OUT_BROADCAST.equalsIgnoreCase(fanOut) && !FAN_OUT_PARTITIONED.equalsIgnoreCase(fanOut)) {
+            throw new IllegalArgumentException("Unknown app.cluster.fan-out: " + fanOut);
+        }
+        nodeId = configuredNodeId != null && !configuredNodeId.isBlank() ? configuredNodeId.trim() : null;
+        if (isBroadcast() && nodeId == null) {
+            throw new IllegalStateException("app.cluster.fan-out=broadcast needs app.cluster.node-id: "
+                    + "a stable id per instance that names its consumer group");
+        }
+        consumerGroup = isBroadcast() ? SHARED_GROUP + "-" + nodeId : SHARED_GROUP;
+        logger.info("Cluster node {}: {} fan-out, consuming as group {}", nodeId != null ? nodeId : "(unnamed)",
+                fanOut.toLowerCase(), consumerGroup);
+    }
+
+    public boolean isBroadcast() {
+        return FAN_OUT_BROADCAST.equalsIgnoreCase(fanOut);
+    }
+
+    // The configured app.cluster.node-id, or null when none is set (partitioned fan-out only)
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Used by the consumer factories and, through SpEL, by the @KafkaListener annotations
+    public String getConsumerGroup() {
+        return consumerGroup;
+    }
+}
@@ -0,0 +1,88 @@
+package com.marketstream.codec;
+
+import com.marketstream.model.BookUpdateBatch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of a {@link BookUpdateBatch} on the order-book topic (big-endian):
+ *
+ * <pre>
+ * byte  magic            0x42
+ * byte  version
+ * byte  priceScale       decimal places of every price in the batch
+ * byte  reserved
+ * short symbolLength     followed by the US-ASCII symbol bytes
+ * long  timestamp        epoch nanos
+ * int   count            followed by count updates of:
+ *   byte side            BookUpdateBatch.BID | ASK
+ *   byte action          BookUpdateBatch.ADD | MODIFY | DELETE | CLEAR
+ *   long price           fixed-point at priceScale
+ *   long size
+ * </pre>
+ */
+public final class BookUpdateCodec {
+    public static final byte MAGIC = 0x42;
+    public static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 6;
+    private static final int UPDATE_SIZE = 2 + 2 * Long.BYTES;
+
+    private BookUpdateCodec() {
+    }
+
+    public static int encodedSize(BookUpdateBatch batch) {
+        return HEADER_SIZE + batch.getSymbol().length() + Long.BYTES + Integer.BYTES + batch.size() * UPDATE_SIZE;
+    }
+
+    public static byte[] encode(BookUpdateBatch batch) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(batch));
+        String symbol = batch.getSymbol();
+        if (!TickBinaryCodec.isAscii(symbol)) {
+            throw new IllegalArgumentException("Symbol is not US-ASCII: " + symbol);
+        }
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) batch.getPriceScale());
+        buffer.put((byte) 0);
+        buffer.putShort((short) symbol.length());
+        for (int i = 0; i < symbol.length(); i++) {
+            buffer.put((byte) symbol.charAt(i));
+        }
+        buffer.putLong(batch.getTimestampNanos());
+        buffer.putInt(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            buffer.put(batch.sideAt(i));
+            buffer.put(batch.actionAt(i));
+            buffer.putLong(batch.priceAt(i));
+            buffer.putLong(batch.sizeAt(i));
+        }
+        return buffer.array();
+    }
+
+    // Replaces the batch's contents; its arrays are reused, so one batch can decode a whole poll
+    public static void decode(byte[] data, BookUpdateBatch into) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.get() != MAGIC) {
+            throw new IllegalArgumentException("Not an order book record");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported order book wire version: " + version);
+        }
+        into.setPriceScale(buffer.get());
+        buffer.get();
+        int symbolLength = buffer.getShort();
+        into.setSymbol(new String(data, buffer.position(), symbolLength, StandardCharsets.US_ASCII));
+        buffer.position(buffer.position() + symbolLength);
+        into.setTimestampNanos(buffer.getLong());
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / UPDATE_SIZE) {
+            throw new IllegalArgumentException("Truncated order book record");
+        }
+        into.clear();
+        for (int i = 0; i < count; i++) {
+            into.add(buffer.get(), buffer.get(), buffer.getLong(), buffer.getLong());
+        }
+    }
+}
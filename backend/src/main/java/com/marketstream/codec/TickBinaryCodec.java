@@ -0,0 +1,126 @@
+package com.marketstream.codec;
+
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Versioned binary layout for a {@link Tick} on the wire (big-endian):
+ *
+ * <pre>
+ * byte  magic            0x4D, never a valid first byte of a JSON document
+ * byte  version
+ * byte  flags            reserved, written as 0 and ignored on read
+ * byte  priceScale       decimal places shared by price, bid, ask and change
+ * short symbolLength     followed by the US-ASCII symbol bytes
+ * long  price, bidPrice, askPrice, change   fixed-point at priceScale
+ * long  changePercent    fixed-point at Tick.CHANGE_PERCENT_SCALE
+ * long  volume
+ * long  timestamp        epoch nanos
+ * </pre>
+ */
+public final class TickBinaryCodec {
+    public static final byte MAGIC = 0x4D;
+    public static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 6;
+    private static final int BODY_SIZE = 7 * Long.BYTES;
+    // Every v1 record carries every field, so there is nothing to flag yet
+    private static final byte RESERVED_FLAGS = 0;
+
+    private TickBinaryCodec() {
+    }
+
+    // Symbols travel one byte per char, so anything outside US-ASCII is refused rather than truncated
+    public static boolean isAscii(String symbol) {
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static int encodedSize(Tick tick) {
+        return HEADER_SIZE + tick.getSymbol().length() + BODY_SIZE;
+    }
+
+    public static byte[] encode(Tick tick) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(tick));
+        encode(tick, buffer);
+        return buffer.array();
+    }
+
+    public static void encode(Tick tick, ByteBuffer buffer) {
+        String symbol = tick.getSymbol();
+        if (!isAscii(symbol)) {
+            throw new IllegalArgumentException("Symbol is not US-ASCII: " + symbol);
+        }
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        buffer.put(RESERVED_FLAGS);
+        buffer.put((byte) tick.getPriceScale());
+        buffer.putShort((short) symbol.length());
+        for (int i = 0; i < symbol.length(); i++) {
+            buffer.put((byte) symbol.charAt(i));
+        }
+        buffer.putLong(tick.getPrice());
+        buffer.putLong(tick.getBidPrice());
+        buffer.putLong(tick.getAskPrice());
+        buffer.putLong(tick.getChange());
+        buffer.putLong(tick.getChangePercent());
+        buffer.putLong(tick.getVolume());
+        buffer.putLong(tick.getTimestampNanos());
+    }
+
+    public static Tick decode(byte[] data) {
+        return decode(data, null);
+    }
+
+    // With a registry, known symbols come back with their id set and the registry's String, so the
+    // tick path neither allocates nor hashes a symbol String for them
+    public static Tick decode(byte[] data, SymbolRegistry symbols) {
+        Tick tick = new Tick();
+        decode(ByteBuffer.wrap(data), tick, symbols);
+        return tick;
+    }
+
+    public static void decode(ByteBuffer buffer, Tick into) {
+        decode(buffer, into, null);
+    }
+
+    public static void decode(ByteBuffer buffer, Tick into, SymbolRegistry symbols) {
+        if (buffer.get() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary market data record");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported market data wire version: " + version);
+        }
+        // Reserved flags byte
+        buffer.get();
+        into.setPriceScale(buffer.get());
+        int symbolLength = buffer.getShort();
+        int symbolOffset = buffer.arrayOffset() + buffer.position();
+        int id = symbols != null ? symbols.idOf(buffer.array(), symbolOffset, symbolLength) : SymbolRegistry.UNKNOWN;
+        if (id != SymbolRegistry.UNKNOWN) {
+            into.setSymbol(symbols.symbolOf(id));
+            into.setSymbolId(id);
+        } else {
+            into.setSymbol(new String(buffer.array(), symbolOffset, symbolLength, StandardCharsets.US_ASCII));
+        }
+        buffer.position(buffer.position() + symbolLength);
+        into.setPrice(buffer.getLong());
+        into.setBidPrice(buffer.getLong());
+        into.setAskPrice(buffer.getLong());
+        into.setChange(buffer.getLong());
+        into.setChangePercent(buffer.getLong());
+        into.setVolume(buffer.getLong());
+        into.setTimestampNanos(buffer.getLong());
+    }
+}
@@ -0,0 +1,65 @@
+package com.marketstream.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.marketstream.latency.LatencyClock;
+import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+// Detects the format from the first byte so a topic can be switched between JSON and binary without draining it
+public class TickDeserializer implements Deserializer<Tick> {
+    private final ObjectMapper objectMapper;
+    // Resolves binary ticks' symbol ids from the record bytes; optional
+    private final SymbolRegistry symbolRegistry;
+
+    public TickDeserializer() {
+        this(JsonMapper.builder().findAndAddModules().build());
+    }
+
+    public TickDeserializer(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    public TickDeserializer(ObjectMapper objectMapper, SymbolRegistry symbolRegistry) {
+        this.objectMapper = objectMapper;
+        this.symbolRegistry = symbolRegistry;
+    }
+
+    // Stamps when decoding started and finished, for the broker-to-consumer and deserialize latency stages
+    @Override
+    public Tick deserialize(String topic, Headers headers, byte[] data) {
+        long received = LatencyClock.now();
+        Tick tick = deserialize(topic, data);
+        if (tick != null) {
+            Header origin = headers.lastHeader(LatencyClock.ORIGIN_HEADER);
+            tick.setOriginNanos(origin != null ? LatencyClock.decodeOrigin(origin.value()) : 0L);
+            tick.setReceivedNanos(received);
+            tick.setDecodedNanos(LatencyClock.now());
+        }
+        return tick;
+    }
+
+    @Override
+    public Tick deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (TickBinaryCodec.isBinary(data)) {
+                return TickBinaryCodec.decode(data, symbolRegistry);
+            }
+            Tick tick = Tick.fromMarketData(objectMapper.readValue(data, MarketData.class));
+            tick.setSourceJson(data);
+            return tick;
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to deserialize market data from topic " + topic, e);
+        }
+    }
+}
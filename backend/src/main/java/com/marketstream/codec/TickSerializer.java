@@ -0,0 +1,52 @@
+package com.marketstream.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.marketstream.latency.LatencyClock;
+import com.marketstream.model.Tick;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+// Runs synchronously inside KafkaTemplate.send, so callers may reuse the Tick as soon as send returns
+public class TickSerializer implements Serializer<Tick> {
+    private final ObjectMapper objectMapper;
+    // Wire format per topic; topics not listed stay on JSON
+    private final Map<String, WireFormat> topicFormats;
+
+    public TickSerializer() {
+        this(JsonMapper.builder().findAndAddModules().build(), Map.of());
+    }
+
+    public TickSerializer(ObjectMapper objectMapper, Map<String, WireFormat> topicFormats) {
+        this.objectMapper = objectMapper;
+        this.topicFormats = topicFormats;
+    }
+
+    // The origin stamp travels as a header so both wire formats carry it unchanged
+    @Override
+    public byte[] serialize(String topic, Headers headers, Tick data) {
+        if (data != null && data.getOriginNanos() > 0) {
+            headers.add(LatencyClock.ORIGIN_HEADER, LatencyClock.encodeOrigin(data.getOriginNanos()));
+        }
+        return serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Tick data) {
+        if (data == null) {
+            return null;
+        }
+        if (topicFormats.getOrDefault(topic, WireFormat.JSON) == WireFormat.BINARY) {
+            return TickBinaryCodec.encode(data);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(data.toMarketData());
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Failed to serialize market data for topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.marketstream.codec;
+
+public enum WireFormat {
+    JSON,
+    BINARY;
+
+    public static WireFormat fromConfig(String value) {
+        return value == null || value.isBlank() ? JSON : valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,111 @@
+package com.marketstream.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * A fixed set of single-threaded lanes. Items with the same key always run on the same lane, in
+ * the order they were handed in, while different keys run in parallel; keyed by symbol id this
+ * spreads per-tick work across cores without giving up per-symbol ordering.
+ */
+public class StripedExecutor {
+    public interface Task<T> {
+        void run(T item) throws Exception;
+    }
+
+    private final ExecutorService[] lanes;
+
+    public StripedExecutor(String name, int stripes, boolean virtualThreads) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one stripe is required: " + stripes);
+        }
+        lanes = new ExecutorService[stripes];
+        for (int i = 0; i < stripes; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(threadFactory(name + "-" + i, virtualThreads));
+        }
+    }
+
+    public int stripes() {
+        return lanes.length;
+    }
+
+    // Runs the task for every item on its key's lane and returns once all of them finished;
+    // the first failure is rethrown after the other lanes completed
+    public <T> void forEach(List<T> items, ToIntFunction<T> key, Task<T> task) throws Exception {
+        if (lanes.length == 1 || items.size() <= 1) {
+            for (T item : items) {
+                task.run(item);
+            }
+            return;
+        }
+        List<List<T>> perLane = new ArrayList<>(lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            perLane.add(null);
+        }
+        for (T item : items) {
+            int lane = Math.floorMod(key.applyAsInt(item), lanes.length);
+            List<T> batch = perLane.get(lane);
+            if (batch == null) {
+                batch = new ArrayList<>();
+                perLane.set(lane, batch);
+            }
+            batch.add(item);
+        }
+        List<Future<?>> futures = new ArrayList<>(lanes.length);
+        for (int lane = 0; lane < lanes.length; lane++) {
+            List<T> batch = perLane.get(lane);
+            if (batch != null) {
+                futures.add(lanes[lane].submit(() -> {
+                    for (T item : batch) {
+                        task.run(item);
+                    }
+                    return null;
+                }));
+            }
+        }
+        Exception failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception cause ? cause : new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name, boolean virtualThreads) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name(name).factory();
+        }
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
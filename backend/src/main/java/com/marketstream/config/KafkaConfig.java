@@ -1,23 +1,42 @@
 package com.marketstream.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketstream.cluster.ClusterNode;
+import com.marketstream.codec.TickDeserializer;
+import com.marketstream.codec.TickSerializer;
+import com.marketstream.codec.WireFormat;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import com.marketstream.transport.ProducerProfile;
+import com.marketstream.transport.ProducerProfileMetrics;
+import io.micrometer.core.instrument.ImmutableTag;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+// Only with the Kafka transport; the in-process ring needs no broker
 @Configuration
 @EnableKafka
+@ConditionalOnProperty(name = "app.transport.type", havingValue = "kafka", matchIfMissing = true)
 public class KafkaConfig {
 
     @Value("${spring.kafka.bootstrap-servers}")
@@ -26,48 +45,133 @@ public class KafkaConfig {
     @Value("${app.kafka.topic.market-data}")
     private String marketDataTopic;
 
+    // json | binary; consumers detect the format per record, so producers can be switched first
+    @Value("${app.kafka.topic.market-data-format:json}")
+    private String marketDataFormat;
+
+    // Level-2 price-level updates, BookUpdateCodec records keyed by symbol
+    @Value("${app.kafka.topic.order-book:order-book-topic}")
+    private String orderBookTopic;
+
+    @Value("${app.kafka.topic.partitions:3}")
+    private int partitions;
+
+    // One listener container thread per partition; more would sit idle
+    @Value("${app.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    // lowest-latency | balanced | max-throughput, see ProducerProfile
+    @Value("${app.kafka.producer.profile:balanced}")
+    private String producerProfile;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Broadcast fan-out gives each node a group of its own, so every node sees every partition
+    @Autowired
+    private ClusterNode clusterNode;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
     @Bean
     public NewTopic marketDataTopic() {
-        return new NewTopic(marketDataTopic, 3, (short) 1);
+        return new NewTopic(marketDataTopic, partitions, (short) 1);
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> props = new HashMap<>();
+    public NewTopic orderBookTopic() {
+        return new NewTopic(orderBookTopic, partitions, (short) 1);
+    }
+
+    @Bean
+    public ProducerFactory<String, Tick> producerFactory() {
+        return producerFactory(ProducerProfile.fromConfig(producerProfile));
+    }
+
+    @Bean
+    public KafkaTemplate<String, Tick> kafkaTemplate() {
+        KafkaTemplate<String, Tick> template = new KafkaTemplate<>(producerFactory());
+        ProducerProfileMetrics.bind(template, ProducerProfile.fromConfig(producerProfile), meterRegistry);
+        return template;
+    }
+
+    // Streams with a different latency/throughput tradeoff build their own factory from another profile
+    public ProducerFactory<String, Tick> producerFactory(ProducerProfile profile) {
+        Map<String, Object> props = profile.producerProps();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.ACKS_CONFIG, "all");
-        props.put(ProducerConfig.RETRIES_CONFIG, 3);
-        props.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
-        props.put(ProducerConfig.LINGER_MS_CONFIG, 1);
-        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 33554432);
-        return new DefaultKafkaProducerFactory<>(props);
+        Map<String, WireFormat> topicFormats = Map.of(marketDataTopic, WireFormat.fromConfig(marketDataFormat));
+        DefaultKafkaProducerFactory<String, Tick> factory = new DefaultKafkaProducerFactory<>(props,
+                new StringSerializer(), new TickSerializer(objectMapper, topicFormats));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(new ImmutableTag("profile", profile.configName()))));
+        return factory;
     }
 
+    // Book updates are already encoded by BookUpdateCodec; they share the configured producer profile
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, byte[]> orderBookKafkaTemplate() {
+        ProducerProfile profile = ProducerProfile.fromConfig(producerProfile);
+        Map<String, Object> props = profile.producerProps();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(props,
+                new StringSerializer(), new ByteArraySerializer());
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(new ImmutableTag("profile", profile.configName()), new ImmutableTag("feed", "order-book"))));
+        return new KafkaTemplate<>(factory);
     }
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, Tick> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "marketstream-consumer-group");
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, clusterNode.getConsumerGroup());
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
-        return new DefaultKafkaConsumerFactory<>(props);
+        // Undecodable records surface as null values instead of failing the poll
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new TickDeserializer(objectMapper, symbolRegistry)));
+    }
+
+    // Raw records; the listener decodes each into one reused batch, and records carry many updates each,
+    // hence the larger poll
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> orderBookListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, clusterNode.getConsumerGroup());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ByteArrayDeserializer()));
+        factory.setConcurrency(Math.min(concurrency, partitions));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Tick> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Tick> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(Math.min(concurrency, partitions));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        return factory;
     }
 
+    // Hands the listener the whole poll so it can conflate per symbol and commit once per batch
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, Tick> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Tick> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(Math.min(concurrency, partitions));
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
         return factory;
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,22 @@
 package com.marketstream.config;
 
+import com.marketstream.stream.MarketDataStreamer;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.resource.PathResourceResolver;
 
 import java.io.IOException;
+import java.util.concurrent.Callable;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -47,6 +55,24 @@ public class WebConfig implements WebMvcConfigurer {
                 });
     }
 
+    // Streaming responses run here: a virtual thread per open stream, parked while it waits for ticks
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("market-stream-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+        // Streams stay open until the client disconnects; other async requests keep the default timeout
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest && Boolean.TRUE.equals(
+                        request.getAttribute(MarketDataStreamer.UNBOUNDED_REQUEST, RequestAttributes.SCOPE_REQUEST))) {
+                    asyncRequest.setTimeout(-1L);
+                }
+            }
+        });
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
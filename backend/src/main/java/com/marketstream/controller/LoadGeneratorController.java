@@ -0,0 +1,41 @@
+package com.marketstream.controller;
+
+import com.marketstream.loadgen.LoadGenerator;
+import com.marketstream.loadgen.LoadReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/load-generator")
+@CrossOrigin(originPatterns = "*")
+public class LoadGeneratorController {
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    // Parameters left out fall back to app.load-generator.*; a running generator is restarted
+    @PostMapping("/start")
+    public ResponseEntity<LoadReport> start(@RequestParam(required = false) Long rate,
+            @RequestParam(required = false) Integer symbols,
+            @RequestParam(required = false) String distribution) {
+        try {
+            return ResponseEntity.ok(loadGenerator.start(rate, symbols, distribution));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            // The universe filled up with other symbols while topping it up
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<LoadReport> stop() {
+        return ResponseEntity.ok(loadGenerator.stop());
+    }
+
+    @GetMapping
+    public ResponseEntity<LoadReport> report() {
+        return ResponseEntity.ok(loadGenerator.report());
+    }
+}
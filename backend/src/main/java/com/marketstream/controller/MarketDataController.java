@@ -1,14 +1,35 @@
 package com.marketstream.controller;
 
+import com.marketstream.cache.InvalidationReport;
+import com.marketstream.history.BarInterval;
+import com.marketstream.history.BarStore;
+import com.marketstream.history.OhlcvBar;
 import com.marketstream.model.MarketData;
 import com.marketstream.service.MarketDataCache;
+import com.marketstream.snapshot.MarketSnapshot;
+import com.marketstream.snapshot.SnapshotEngine;
+import com.marketstream.stream.MarketDataStreamer;
+import com.marketstream.stream.StreamFormat;
+import com.marketstream.symbol.SymbolRegistry;
+import com.marketstream.websocket.SessionDispatcher;
+import com.marketstream.websocket.SessionStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Arrays;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,8 +40,16 @@ public class MarketDataController {
     private static final Logger logger = LoggerFactory.getLogger(MarketDataController.class);
     @Autowired
     private MarketDataCache cacheService;
-    private final List<String> availableSymbols = Arrays.asList(
-            "AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", "META", "NVDA", "NFLX", "TATAINFY", "RELIANCE");
+    @Autowired
+    private SessionDispatcher sessionDispatcher;
+    @Autowired
+    private SnapshotEngine snapshotEngine;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private BarStore barStore;
+    @Autowired
+    private MarketDataStreamer marketDataStreamer;
 
     @GetMapping("/snapshot/{symbol}")
     public ResponseEntity<MarketData> getSnapshot(@PathVariable String symbol) {
@@ -33,60 +62,127 @@ public class MarketDataController {
         }
     }
 
+    // OHLCV bars starting in [from, to), ISO-8601 instants; a full page ends early, so page on from
+    @GetMapping("/history/{symbol}")
+    public ResponseEntity<List<OhlcvBar>> getHistory(@PathVariable String symbol, @RequestParam String from,
+            @RequestParam String to, @RequestParam(required = false, defaultValue = "1m") String interval) {
+        if (!barStore.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            List<OhlcvBar> bars = barStore.query(symbol.trim().toUpperCase(), BarInterval.fromLabel(interval),
+                    Instant.parse(from), Instant.parse(to));
+            return bars != null ? ResponseEntity.ok(bars) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Live ticks as Server-Sent Events, or NDJSON with format=ndjson or Accept: application/x-ndjson;
+    // symbols and fields filter as for /snapshots and STOMP subscriptions
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(required = false) List<String> symbols,
+            @RequestParam(required = false) List<String> fields, @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, WebRequest request) {
+        try {
+            StreamFormat streamFormat = StreamFormat.negotiate(format, accept);
+            request.setAttribute(MarketDataStreamer.UNBOUNDED_REQUEST, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            return ResponseEntity.ok()
+                    .contentType(streamFormat.mediaType())
+                    .cacheControl(CacheControl.noStore())
+                    // Stops nginx from buffering the stream
+                    .header("X-Accel-Buffering", "no")
+                    .body(marketDataStreamer.open(symbols, fields, streamFormat));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     @GetMapping("/symbols")
     public ResponseEntity<List<String>> getAvailableSymbols() {
-        return ResponseEntity.ok(availableSymbols);
+        return ResponseEntity.ok(symbolRegistry.activeSymbols());
     }
 
+    // Adds a symbol to the universe, or reactivates it; the producer starts ticking it on its next cycle
+    @PostMapping("/symbols/{symbol}")
+    public ResponseEntity<Void> addSymbol(@PathVariable String symbol,
+            @RequestParam(required = false, defaultValue = "100.00") BigDecimal basePrice) {
+        try {
+            symbolRegistry.add(symbol, basePrice);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        logger.info("Added symbol: {} at base price {}", symbol.toUpperCase(), basePrice);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/symbols/{symbol}")
+    public ResponseEntity<Void> removeSymbol(@PathVariable String symbol) {
+        String normalized = symbol.trim().toUpperCase();
+        if (!symbolRegistry.remove(normalized)) {
+            return ResponseEntity.notFound().build();
+        }
+        snapshotEngine.remove(normalized::equals);
+        cacheService.invalidateSymbols(List.of(normalized));
+        logger.info("Removed symbol: {}", normalized);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Whole-market snapshot, pre-serialized by the snapshot engine; pollers send the ETag back to get a 304
     @GetMapping("/snapshots")
-    public ResponseEntity<List<MarketData>> getAllSnapshots() {
-        logger.info("Getting all snapshots for {} symbols", availableSymbols.size());
-        List<MarketData> snapshots = availableSymbols.stream()
-                .map(symbol -> {
-                    try {
-                        MarketData data = cacheService.getMarketData(symbol);
-                        if (data == null) {
-                            logger.debug("No cached data for symbol: {}, creating default data", symbol);
-                            // Create default market data if nothing is cached
-                            data = createDefaultMarketData(symbol);
-                            cacheService.cacheMarketData(data);
-                        }
-                        return data;
-                    } catch (Exception e) {
-                        logger.error("Error getting data for symbol: {}", symbol, e);
-                        return createDefaultMarketData(symbol);
-                    }
-                })
-                .filter(data -> data != null)
-                .collect(Collectors.toList());
-        logger.info("Returning {} snapshots", snapshots.size());
-        return ResponseEntity.ok(snapshots);
+    public ResponseEntity<byte[]> getAllSnapshots(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        MarketSnapshot snapshot = snapshotEngine.current();
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
     }
 
-    private MarketData createDefaultMarketData(String symbol) {
-        // Create default market data with base prices
-        java.math.BigDecimal basePrice = getBasePriceForSymbol(symbol);
-        java.time.LocalDateTime now = java.time.LocalDateTime.now();
-        MarketData data = new MarketData(symbol, basePrice, basePrice, basePrice, 1000L, now);
-        data.setChange(java.math.BigDecimal.ZERO);
-        data.setChangePercent(java.math.BigDecimal.ZERO);
-        return data;
+    // Subset of the snapshot; symbols it does not hold yet are read from the cache in one batch
+    @GetMapping(value = "/snapshots", params = "symbols")
+    public ResponseEntity<List<MarketData>> getSnapshots(@RequestParam List<String> symbols) {
+        MarketSnapshot snapshot = snapshotEngine.current();
+        List<MarketData> snapshots = new ArrayList<>(symbols.size());
+        List<String> missing = new ArrayList<>();
+        for (String symbol : symbols) {
+            String normalized = symbol.trim().toUpperCase();
+            MarketData data = snapshot.get(normalized);
+            if (data != null) {
+                snapshots.add(data);
+            } else {
+                missing.add(normalized);
+            }
+        }
+        if (!missing.isEmpty()) {
+            snapshots.addAll(cacheService.getMarketData(missing));
+        }
+        return ResponseEntity.ok(snapshots);
     }
 
-    private java.math.BigDecimal getBasePriceForSymbol(String symbol) {
-        switch (symbol) {
-            case "AAPL": return new java.math.BigDecimal("150.00");
-            case "GOOGL": return new java.math.BigDecimal("2800.00");
-            case "MSFT": return new java.math.BigDecimal("300.00");
-            case "AMZN": return new java.math.BigDecimal("3200.00");
-            case "TSLA": return new java.math.BigDecimal("800.00");
-            case "META": return new java.math.BigDecimal("250.00");
-            case "NVDA": return new java.math.BigDecimal("450.00");
-            case "NFLX": return new java.math.BigDecimal("400.00");
-            case "TATAINFY": return new java.math.BigDecimal("25.00");
-            case "RELIANCE": return new java.math.BigDecimal("2500.00");
-            default: return new java.math.BigDecimal("100.00");
+    // Scoped invalidation: by symbol list, by symbol prefix, or everything under market:data:* when neither is given
+    @DeleteMapping("/cache")
+    public ResponseEntity<InvalidationReport> invalidateCache(@RequestParam(required = false) List<String> symbols,
+            @RequestParam(required = false, defaultValue = "") String prefix) {
+        if (symbols != null && !symbols.isEmpty()) {
+            List<String> normalized = symbols.stream().map(String::toUpperCase).collect(Collectors.toList());
+            snapshotEngine.remove(normalized::contains);
+            return ResponseEntity.ok(cacheService.invalidateSymbols(normalized));
         }
+        String normalizedPrefix = prefix.toUpperCase();
+        snapshotEngine.remove(symbol -> symbol != null && symbol.startsWith(normalizedPrefix));
+        return ResponseEntity.ok(cacheService.invalidatePrefix(normalizedPrefix));
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionStats>> getSessionStats() {
+        return ResponseEntity.ok(sessionDispatcher.stats());
     }
 
     @GetMapping("/health")
@@ -0,0 +1,52 @@
+package com.marketstream.controller;
+
+import com.marketstream.book.BookDepth;
+import com.marketstream.book.OrderBookEngine;
+import com.marketstream.loadgen.BookGeneratorReport;
+import com.marketstream.loadgen.BookUpdateGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/order-book")
+@CrossOrigin(originPatterns = "*")
+public class OrderBookController {
+    @Autowired
+    private OrderBookEngine orderBookEngine;
+    @Autowired
+    private BookUpdateGenerator bookUpdateGenerator;
+
+    // Snapshot to start from before applying deltas from /topic/order-book/{symbol}
+    @GetMapping("/{symbol}")
+    public ResponseEntity<BookDepth> getDepth(@PathVariable String symbol,
+            @RequestParam(required = false, defaultValue = "10") int depth) {
+        try {
+            BookDepth book = orderBookEngine.depth(symbol.trim().toUpperCase(), depth);
+            return book != null ? ResponseEntity.ok(book) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Parameters left out fall back to app.order-book.generator.*; a running generator is restarted
+    @PostMapping("/generator/start")
+    public ResponseEntity<BookGeneratorReport> startGenerator(@RequestParam(required = false) Long rate,
+            @RequestParam(required = false) Integer symbols) {
+        try {
+            return ResponseEntity.ok(bookUpdateGenerator.start(rate, symbols));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/generator/stop")
+    public ResponseEntity<BookGeneratorReport> stopGenerator() {
+        return ResponseEntity.ok(bookUpdateGenerator.stop());
+    }
+
+    @GetMapping("/generator")
+    public ResponseEntity<BookGeneratorReport> generatorReport() {
+        return ResponseEntity.ok(bookUpdateGenerator.report());
+    }
+}
@@ -0,0 +1,51 @@
+package com.marketstream.controller;
+
+import com.marketstream.journal.ReplayService;
+import com.marketstream.journal.ReplayStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/replay")
+@CrossOrigin(originPatterns = "*")
+public class ReplayController {
+    @Autowired
+    private ReplayService replayService;
+
+    // from/to are ISO-8601 instants; subscribe to the returned destination to receive the ticks
+    @PostMapping
+    public ResponseEntity<ReplayStatus> start(@RequestParam String from, @RequestParam String to,
+            @RequestParam(required = false) List<String> symbols,
+            @RequestParam(defaultValue = "1.0") double speed) {
+        try {
+            return ResponseEntity.ok(replayService.start(Instant.parse(from), Instant.parse(to), symbols, speed));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReplayStatus>> list() {
+        return ResponseEntity.ok(replayService.list());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReplayStatus> status(@PathVariable String id) {
+        ReplayStatus status = replayService.status(id);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReplayStatus> stop(@PathVariable String id) {
+        ReplayStatus status = replayService.stop(id);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+}
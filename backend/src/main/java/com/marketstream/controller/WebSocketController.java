@@ -1,19 +1,76 @@
 package com.marketstream.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketstream.model.SubscriptionRequest;
+import com.marketstream.websocket.SessionDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 public class WebSocketController {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketController.class);
+    @Autowired
+    private SessionDispatcher sessionDispatcher;
+    @Autowired
+    private ObjectMapper objectMapper;
 
+    // Accepts a SubscriptionRequest JSON, or a bare symbol from older clients
     @MessageMapping("/subscribe")
-    @SendTo("/topic/market-data/all")
-    public String subscribe(String symbol) {
-        logger.info("Client subscribed to symbol: {}", symbol);
-        return "Subscribed to " + symbol;
+    public void subscribe(@Payload String payload, SimpMessageHeaderAccessor headerAccessor) {
+        try {
+            SubscriptionRequest request = parse(payload);
+            logger.info("Session {} subscribed: {}", headerAccessor.getSessionId(), request);
+            sessionDispatcher.subscribe(headerAccessor.getSessionId(), request);
+        } catch (Exception e) {
+            logger.warn("Rejected subscription from session {}: {}", headerAccessor.getSessionId(), e.getMessage());
+        }
+    }
+
+    @MessageMapping("/unsubscribe")
+    public void unsubscribe(@Payload String payload, SimpMessageHeaderAccessor headerAccessor) {
+        try {
+            SubscriptionRequest request = parse(payload);
+            if (request.getSymbols() != null) {
+                sessionDispatcher.unsubscribe(headerAccessor.getSessionId(), request.getSymbols());
+            }
+        } catch (Exception e) {
+            logger.warn("Rejected unsubscribe from session {}: {}", headerAccessor.getSessionId(), e.getMessage());
+        }
+    }
+
+    // Delta sessions: re-sends snapshots for the listed symbols, or for all of them without a symbol list
+    @MessageMapping("/resync")
+    public void resync(@Payload String payload, SimpMessageHeaderAccessor headerAccessor) {
+        try {
+            List<String> symbols = payload.isBlank() ? null : parse(payload).getSymbols();
+            sessionDispatcher.resync(headerAccessor.getSessionId(), symbols);
+        } catch (Exception e) {
+            logger.warn("Rejected resync from session {}: {}", headerAccessor.getSessionId(), e.getMessage());
+        }
+    }
+
+    // Echo of a sampled message's x-latency-echo header, for the client_receive latency stage
+    @MessageMapping("/latency")
+    public void latencyEcho(@Payload String payload, SimpMessageHeaderAccessor headerAccessor) {
+        try {
+            sessionDispatcher.recordEcho(payload.trim());
+        } catch (Exception e) {
+            logger.debug("Rejected latency echo from session {}: {}", headerAccessor.getSessionId(), e.getMessage());
+        }
+    }
+
+    private SubscriptionRequest parse(String payload) throws Exception {
+        String trimmed = payload.trim();
+        if (trimmed.startsWith("{")) {
+            return objectMapper.readValue(trimmed, SubscriptionRequest.class);
+        }
+        return new SubscriptionRequest(List.of(trimmed), null, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.marketstream.history;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+// Immutable, column-per-field run of bars in start order. Starts are stored as whole intervals
+// after the first bar, so a chunk is 44 bytes per bar plus the array headers
+final class BarChunk {
+    private final long intervalNanos;
+    private final long base;
+    private final int[] offsets;
+    private final long[] opens;
+    private final long[] highs;
+    private final long[] lows;
+    private final long[] closes;
+    private final long[] volumes;
+    private final int[] ticks;
+
+    // Copies the first size entries of the given columns
+    BarChunk(long intervalNanos, long[] starts, long[] opens, long[] highs, long[] lows, long[] closes,
+            long[] volumes, int[] ticks, int size) {
+        this.intervalNanos = intervalNanos;
+        this.base = starts[0];
+        this.offsets = new int[size];
+        for (int i = 0; i < size; i++) {
+            offsets[i] = (int) ((starts[i] - base) / intervalNanos);
+        }
+        this.opens = Arrays.copyOf(opens, size);
+        this.highs = Arrays.copyOf(highs, size);
+        this.lows = Arrays.copyOf(lows, size);
+        this.closes = Arrays.copyOf(closes, size);
+        this.volumes = Arrays.copyOf(volumes, size);
+        this.ticks = Arrays.copyOf(ticks, size);
+    }
+
+    int size() {
+        return offsets.length;
+    }
+
+    long startAt(int index) {
+        return base + offsets[index] * intervalNanos;
+    }
+
+    long lastStart() {
+        return startAt(offsets.length - 1);
+    }
+
+    // Index of the first bar starting at or after the given time, or size() if there is none
+    int firstAtOrAfter(long nanos) {
+        if (nanos <= base) {
+            return 0;
+        }
+        long offset = (nanos - base + intervalNanos - 1) / intervalNanos;
+        if (offset > offsets[offsets.length - 1]) {
+            return offsets.length;
+        }
+        int index = Arrays.binarySearch(offsets, (int) offset);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Appends bars from the given index that start before toNanos; returns false once out is full or past toNanos
+    boolean collect(int from, long toNanos, int priceScale, int maxBars, List<OhlcvBar> out) {
+        for (int i = from; i < offsets.length; i++) {
+            long start = startAt(i);
+            if (start >= toNanos || out.size() >= maxBars) {
+                return false;
+            }
+            out.add(new OhlcvBar(Instant.ofEpochSecond(0, start),
+                    BigDecimal.valueOf(opens[i], priceScale), BigDecimal.valueOf(highs[i], priceScale),
+                    BigDecimal.valueOf(lows[i], priceScale), BigDecimal.valueOf(closes[i], priceScale),
+                    volumes[i], ticks[i]));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.marketstream.history;
+
+import java.util.concurrent.TimeUnit;
+
+public enum BarInterval {
+    ONE_SECOND("1s", TimeUnit.SECONDS.toNanos(1)),
+    ONE_MINUTE("1m", TimeUnit.MINUTES.toNanos(1)),
+    FIVE_MINUTES("5m", TimeUnit.MINUTES.toNanos(5));
+
+    private final String label;
+    private final long nanos;
+
+    BarInterval(String label, long nanos) {
+        this.label = label;
+        this.nanos = nanos;
+    }
+
+    public static BarInterval fromLabel(String value) {
+        for (BarInterval interval : values()) {
+            if (interval.label.equalsIgnoreCase(value.trim())) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unknown bar interval: " + value);
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    // Start of the bar an epoch-nanos timestamp falls into
+    public long bucketOf(long timestampNanos) {
+        return timestampNanos - Math.floorMod(timestampNanos, nanos);
+    }
+}
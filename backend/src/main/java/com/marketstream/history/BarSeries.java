@@ -0,0 +1,162 @@
+package com.marketstream.history;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bars of one symbol at one interval. The newest bars live in growable primitive columns that the
+ * symbol's consumer lane updates in place; once they hold {@code chunkBars} bars and the next bar
+ * opens, they are sealed into an immutable {@link BarChunk} and the columns are reused. Sealed
+ * chunks are published as a copy-on-write array, so queries search them without taking the lock,
+ * and the oldest chunks are dropped beyond {@code retentionBars}. A retention below the chunk size
+ * shrinks the chunks to it, so short retentions hold about as many bars as they ask for.
+ */
+final class BarSeries {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final BarChunk[] NO_CHUNKS = new BarChunk[0];
+
+    private final BarInterval interval;
+    private final int chunkBars;
+    private final int retentionBars;
+
+    private volatile BarChunk[] sealed = NO_CHUNKS;
+    // Guarded by this
+    private int sealedBars;
+    private long lastSealedStart = Long.MIN_VALUE;
+    private int priceScale = -1;
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] opens = new long[INITIAL_CAPACITY];
+    private long[] highs = new long[INITIAL_CAPACITY];
+    private long[] lows = new long[INITIAL_CAPACITY];
+    private long[] closes = new long[INITIAL_CAPACITY];
+    private long[] volumes = new long[INITIAL_CAPACITY];
+    private int[] ticks = new int[INITIAL_CAPACITY];
+    private int size;
+
+    BarSeries(BarInterval interval, int chunkBars, int retentionBars) {
+        this.interval = interval;
+        this.chunkBars = Math.min(chunkBars, retentionBars);
+        this.retentionBars = retentionBars;
+    }
+
+    /**
+     * Folds a trade into its bar. A late tick still updates high, low and volume of an unsealed bar
+     * but never its close; returns false if its bar is already sealed or was never opened.
+     */
+    synchronized boolean add(long timestampNanos, long price, int scale, long volume) {
+        if (priceScale < 0) {
+            priceScale = scale;
+        }
+        if (scale != priceScale) {
+            price = BigDecimal.valueOf(price, scale).setScale(priceScale, RoundingMode.HALF_UP).longValue();
+        }
+        long start = interval.bucketOf(timestampNanos);
+        if (size > 0 && start <= starts[size - 1]) {
+            int index = start == starts[size - 1] ? size - 1 : Arrays.binarySearch(starts, 0, size, start);
+            if (index < 0) {
+                return false;
+            }
+            highs[index] = Math.max(highs[index], price);
+            lows[index] = Math.min(lows[index], price);
+            volumes[index] += volume;
+            ticks[index]++;
+            if (index == size - 1) {
+                closes[index] = price;
+            }
+            return true;
+        }
+        if (start <= lastSealedStart) {
+            return false;
+        }
+        if (size == chunkBars) {
+            seal();
+        }
+        if (size == starts.length) {
+            grow();
+        }
+        starts[size] = start;
+        opens[size] = price;
+        highs[size] = price;
+        lows[size] = price;
+        closes[size] = price;
+        volumes[size] = volume;
+        ticks[size] = 1;
+        size++;
+        return true;
+    }
+
+    // Bars starting in [fromNanos, toNanos), oldest first, at most maxBars of them
+    List<OhlcvBar> query(long fromNanos, long toNanos, int maxBars) {
+        BarChunk[] chunks;
+        BarChunk open = null;
+        int scale;
+        synchronized (this) {
+            chunks = sealed;
+            // Only the open columns are copied; sealed chunks are immutable
+            if (size > 0 && starts[0] < toNanos && starts[size - 1] >= fromNanos) {
+                open = new BarChunk(interval.nanos(), starts, opens, highs, lows, closes, volumes, ticks, size);
+            }
+            scale = priceScale;
+        }
+        List<OhlcvBar> bars = new ArrayList<>();
+        for (int i = firstChunkEndingAtOrAfter(chunks, fromNanos); i < chunks.length; i++) {
+            BarChunk chunk = chunks[i];
+            if (!chunk.collect(chunk.firstAtOrAfter(fromNanos), toNanos, scale, maxBars, bars)) {
+                return bars;
+            }
+        }
+        if (open != null) {
+            open.collect(open.firstAtOrAfter(fromNanos), toNanos, scale, maxBars, bars);
+        }
+        return bars;
+    }
+
+    synchronized int barCount() {
+        return sealedBars + size;
+    }
+
+    private static int firstChunkEndingAtOrAfter(BarChunk[] chunks, long nanos) {
+        int low = 0;
+        int high = chunks.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunks[mid].lastStart() < nanos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void seal() {
+        BarChunk chunk = new BarChunk(interval.nanos(), starts, opens, highs, lows, closes, volumes, ticks, size);
+        BarChunk[] current = sealed;
+        int drop = 0;
+        int remaining = sealedBars + size;
+        while (drop < current.length && remaining > retentionBars) {
+            remaining -= current[drop].size();
+            drop++;
+        }
+        BarChunk[] next = Arrays.copyOfRange(current, drop, current.length + 1);
+        next[next.length - 1] = chunk;
+        sealed = next;
+        sealedBars = remaining;
+        lastSealedStart = starts[size - 1];
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = Math.min(starts.length * 2, chunkBars);
+        starts = Arrays.copyOf(starts, capacity);
+        opens = Arrays.copyOf(opens, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        closes = Arrays.copyOf(closes, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+        ticks = Arrays.copyOf(ticks, capacity);
+    }
+}
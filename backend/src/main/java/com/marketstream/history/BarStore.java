@@ -0,0 +1,134 @@
+package com.marketstream.history;
+
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * OHLCV bars for every symbol at each {@link BarInterval}, built incrementally from the ticks the
+ * consumer receives before conflation, so volume and the high/low range see every trade. History
+ * queries read the bars only and never rescan ticks.
+ */
+@Component
+public class BarStore {
+    private static final Logger logger = LoggerFactory.getLogger(BarStore.class);
+    private static final BarInterval[] INTERVALS = BarInterval.values();
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${app.history.enabled:true}")
+    private boolean enabled;
+    @Value("${app.history.chunk-bars:1024}")
+    private int chunkBars;
+    @Value("${app.history.retention.1s:3600}")
+    private int secondRetention;
+    @Value("${app.history.retention.1m:1440}")
+    private int minuteRetention;
+    @Value("${app.history.retention.5m:2016}")
+    private int fiveMinuteRetention;
+    @Value("${app.history.max-bars:10000}")
+    private int maxBars;
+
+    // Per symbol id, one series per interval; copied on write, so a new series is only reachable once complete
+    private volatile BarSeries[][] series = new BarSeries[64][];
+    private Counter lateCounter;
+
+    @PostConstruct
+    void init() {
+        lateCounter = Counter.builder("marketstream.history.late")
+                .description("Ticks older than every bar still open for their symbol and interval")
+                .register(meterRegistry);
+        if (enabled) {
+            if (chunkBars < 1 || secondRetention < 1 || minuteRetention < 1 || fiveMinuteRetention < 1) {
+                throw new IllegalArgumentException("app.history.chunk-bars and app.history.retention.* must be at least 1");
+            }
+            logger.info("OHLCV history: {} bars per chunk, retention 1s={} 1m={} 5m={} bars", chunkBars,
+                    secondRetention, minuteRetention, fiveMinuteRetention);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(Tick tick) {
+        int id = symbolRegistry.resolve(tick);
+        if (!enabled || tick.getTimestampNanos() <= 0 || id == SymbolRegistry.UNKNOWN) {
+            return;
+        }
+        for (BarSeries bars : seriesOf(id)) {
+            if (!bars.add(tick.getTimestampNanos(), tick.getPrice(), tick.getPriceScale(), tick.getVolume())) {
+                lateCounter.increment();
+            }
+        }
+    }
+
+    public void addAll(List<Tick> ticks) {
+        for (Tick tick : ticks) {
+            add(tick);
+        }
+    }
+
+    /**
+     * Bars starting in [from, to), oldest first and at most {@code app.history.max-bars} of them; the
+     * newest may still be open. Returns null for a symbol that never ticked.
+     */
+    public List<OhlcvBar> query(String symbol, BarInterval interval, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Need from < to");
+        }
+        int id = symbolRegistry.idOf(symbol);
+        BarSeries[][] current = series;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            return null;
+        }
+        return current[id][interval.ordinal()].query(toNanos(from), toNanos(to), maxBars);
+    }
+
+    private BarSeries[] seriesOf(int id) {
+        BarSeries[][] current = series;
+        BarSeries[] bars = id < current.length ? current[id] : null;
+        return bars != null ? bars : create(id);
+    }
+
+    private synchronized BarSeries[] create(int id) {
+        BarSeries[][] current = series;
+        if (id < current.length && current[id] != null) {
+            return current[id];
+        }
+        int length = id < current.length ? current.length : Math.max(current.length * 2, id + 1);
+        BarSeries[][] next = Arrays.copyOf(current, length);
+        BarSeries[] bars = new BarSeries[INTERVALS.length];
+        for (BarInterval interval : INTERVALS) {
+            bars[interval.ordinal()] = new BarSeries(interval, chunkBars, retentionOf(interval));
+        }
+        next[id] = bars;
+        series = next;
+        return bars;
+    }
+
+    private int retentionOf(BarInterval interval) {
+        return switch (interval) {
+            case ONE_SECOND -> secondRetention;
+            case ONE_MINUTE -> minuteRetention;
+            case FIVE_MINUTES -> fiveMinuteRetention;
+        };
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
@@ -0,0 +1,53 @@
+package com.marketstream.history;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class OhlcvBar {
+    private final Instant start;
+    private final BigDecimal open;
+    private final BigDecimal high;
+    private final BigDecimal low;
+    private final BigDecimal close;
+    private final long volume;
+    private final int ticks;
+
+    public OhlcvBar(Instant start, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, long volume,
+            int ticks) {
+        this.start = start;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.ticks = ticks;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public BigDecimal getOpen() {
+        return open;
+    }
+
+    public BigDecimal getHigh() {
+        return high;
+    }
+
+    public BigDecimal getLow() {
+        return low;
+    }
+
+    public BigDecimal getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+}
@@ -0,0 +1,95 @@
+package com.marketstream.journal;
+
+import com.marketstream.codec.TickBinaryCodec;
+import com.marketstream.model.Tick;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size journal record (big-endian), so record n of a segment sits at a computable offset:
+ *
+ * <pre>
+ * long  timestamp        epoch nanos
+ * long  price, bidPrice, askPrice, change   fixed-point at priceScale
+ * long  changePercent    fixed-point at Tick.CHANGE_PERCENT_SCALE
+ * long  volume
+ * byte  priceScale
+ * byte  symbolLength     0 marks a free slot; written last
+ * byte[22] symbol        US-ASCII, zero padded
+ * </pre>
+ */
+final class JournalRecord {
+    static final int SIZE = 80;
+    static final int MAX_SYMBOL_LENGTH = 22;
+    private static final int PRICE_SCALE = 56;
+    private static final int SYMBOL_LENGTH = 57;
+    private static final int SYMBOL = 58;
+
+    private JournalRecord() {
+    }
+
+    // Symbols that are too long or not US-ASCII are refused rather than truncated
+    static boolean fits(Tick tick) {
+        String symbol = tick.getSymbol();
+        return symbol != null && !symbol.isEmpty() && symbol.length() <= MAX_SYMBOL_LENGTH
+                && TickBinaryCodec.isAscii(symbol);
+    }
+
+    static void write(Tick tick, ByteBuffer buffer, int offset) {
+        buffer.putLong(offset, tick.getTimestampNanos());
+        buffer.putLong(offset + 8, tick.getPrice());
+        buffer.putLong(offset + 16, tick.getBidPrice());
+        buffer.putLong(offset + 24, tick.getAskPrice());
+        buffer.putLong(offset + 32, tick.getChange());
+        buffer.putLong(offset + 40, tick.getChangePercent());
+        buffer.putLong(offset + 48, tick.getVolume());
+        buffer.put(offset + PRICE_SCALE, (byte) tick.getPriceScale());
+        String symbol = tick.getSymbol();
+        for (int i = 0; i < MAX_SYMBOL_LENGTH; i++) {
+            buffer.put(offset + SYMBOL + i, i < symbol.length() ? (byte) symbol.charAt(i) : 0);
+        }
+        buffer.put(offset + SYMBOL_LENGTH, (byte) symbol.length());
+    }
+
+    static boolean isWritten(ByteBuffer buffer, int offset) {
+        int length = buffer.get(offset + SYMBOL_LENGTH);
+        return length > 0 && length <= MAX_SYMBOL_LENGTH;
+    }
+
+    static long timestamp(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset);
+    }
+
+    // Compares the symbol in place, so scans can skip other symbols without decoding them
+    static boolean symbolEquals(ByteBuffer buffer, int offset, String symbol) {
+        int length = buffer.get(offset + SYMBOL_LENGTH);
+        if (length != symbol.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + SYMBOL + i) != (byte) symbol.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String symbol(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[buffer.get(offset + SYMBOL_LENGTH)];
+        buffer.get(offset + SYMBOL, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    static void read(ByteBuffer buffer, int offset, Tick into) {
+        into.setSymbol(symbol(buffer, offset));
+        into.setTimestampNanos(buffer.getLong(offset));
+        into.setPrice(buffer.getLong(offset + 8));
+        into.setBidPrice(buffer.getLong(offset + 16));
+        into.setAskPrice(buffer.getLong(offset + 24));
+        into.setChange(buffer.getLong(offset + 32));
+        into.setChangePercent(buffer.getLong(offset + 40));
+        into.setVolume(buffer.getLong(offset + 48));
+        into.setPriceScale(buffer.get(offset + PRICE_SCALE));
+    }
+}
@@ -0,0 +1,375 @@
+package com.marketstream.journal;
+
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * One memory-mapped journal file: a 64-byte header followed by fixed-size {@link JournalRecord}s,
+ * pre-allocated to its full size. Only the journal's writer thread appends; readers see records up
+ * to the volatile count. Alongside it, a sparse index keeps every Nth record's timestamp and
+ * position per symbol (and across all symbols), so a range read starts near its first record
+ * instead of at the start of the file. The index is saved next to the segment when it is sealed;
+ * records past the saved index are recovered by scanning on open.
+ */
+final class JournalSegment {
+    private static final int MAGIC = 0x4D534A31;
+    private static final short VERSION = 1;
+    private static final int INDEX_MAGIC = 0x4D534931;
+    static final int HEADER_SIZE = 64;
+    static final String SUFFIX = ".journal";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private final Path path;
+    private final long number;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int indexInterval;
+    private final SymbolRegistry symbolRegistry;
+    private volatile int count;
+    private volatile long minTimestamp = Long.MAX_VALUE;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+    // By symbol id, grown by the writer; readers may see a shorter array and miss only brand-new symbols
+    private volatile SparseIndex[] symbolIndex = new SparseIndex[64];
+    private volatile SparseIndex timeIndex = new SparseIndex();
+
+    // Entries are appended by the writer only; size is written last so readers never see a half-added entry
+    static final class SparseIndex {
+        private volatile long[] timestamps = new long[16];
+        private volatile int[] positions = new int[16];
+        private volatile int size;
+        // Records seen for this key; every indexInterval-th one, starting with the first, gets an entry
+        int seen;
+
+        void add(long timestamp, int position) {
+            int n = size;
+            if (n == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, n * 2);
+                positions = Arrays.copyOf(positions, n * 2);
+            }
+            timestamps[n] = timestamp;
+            positions[n] = position;
+            size = n + 1;
+        }
+
+        // Position of the last entry at or before the timestamp, or of the first entry; -1 when empty.
+        // Ticks of one symbol arrive in timestamp order, so entries are sorted up to producer clock jitter
+        int floor(long timestamp) {
+            int n = size;
+            long[] keys = timestamps;
+            int[] values = positions;
+            if (n == 0) {
+                return -1;
+            }
+            int low = 0;
+            int high = n - 1;
+            int found = 0;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= timestamp) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return values[found];
+        }
+    }
+
+    private JournalSegment(Path path, long number, FileChannel channel, MappedByteBuffer buffer, int capacity,
+            int indexInterval, SymbolRegistry symbolRegistry) {
+        this.path = path;
+        this.number = number;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.indexInterval = indexInterval;
+        this.symbolRegistry = symbolRegistry;
+    }
+
+    static JournalSegment create(Path directory, long number, int capacity, int indexInterval,
+            SymbolRegistry symbolRegistry) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", number, SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) capacity * JournalRecord.SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) JournalRecord.SIZE);
+        buffer.putInt(8, capacity);
+        buffer.putLong(16, number);
+        return new JournalSegment(path, number, channel, buffer, capacity, indexInterval, symbolRegistry);
+    }
+
+    static JournalSegment open(Path path, int indexInterval, SymbolRegistry symbolRegistry) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(6) != JournalRecord.SIZE) {
+            channel.close();
+            throw new IOException("Not a version " + VERSION + " tick journal segment: " + path);
+        }
+        int capacity = buffer.getInt(8);
+        JournalSegment segment = new JournalSegment(path, buffer.getLong(16), channel, buffer, capacity,
+                indexInterval, symbolRegistry);
+        try {
+            segment.loadIndex();
+        } catch (IOException e) {
+            // A damaged index is only a shortcut; rebuild it from the records
+            segment.resetIndex();
+        }
+        segment.recover();
+        return segment;
+    }
+
+    long number() {
+        return number;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    long minTimestamp() {
+        return minTimestamp;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    boolean overlaps(long from, long to) {
+        return count > 0 && minTimestamp <= to && maxTimestamp >= from;
+    }
+
+    // Writer thread only
+    void append(ByteBuffer source, int sourceOffset, int symbolId) {
+        int position = count;
+        int offset = offset(position);
+        buffer.put(offset, source, sourceOffset, JournalRecord.SIZE);
+        index(position, symbolId, JournalRecord.timestamp(buffer, offset));
+        count = position + 1;
+    }
+
+    /**
+     * Feeds records with timestamps in [from, to] to the sink, in journal order, until it returns
+     * false; the Tick is reused between calls. With symbols, only their records are decoded.
+     * Returns false when the sink asked to stop.
+     */
+    boolean read(long from, long to, String[] symbols, Tick scratch, Predicate<Tick> sink) {
+        int end = count;
+        int start = startPosition(from, symbols);
+        if (start < 0) {
+            return true;
+        }
+        for (int position = start; position < end; position++) {
+            int offset = offset(position);
+            long timestamp = JournalRecord.timestamp(buffer, offset);
+            if (timestamp < from || timestamp > to || !matches(offset, symbols)) {
+                continue;
+            }
+            JournalRecord.read(buffer, offset, scratch);
+            if (!sink.test(scratch)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    // Flushes the records and saves the index, so reopening skips the scan
+    void seal() throws IOException {
+        force();
+        saveIndex();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(indexPath());
+    }
+
+    private int startPosition(long from, String[] symbols) {
+        if (symbols == null) {
+            return Math.max(timeIndex.floor(from), 0);
+        }
+        SparseIndex[] indexes = symbolIndex;
+        int start = -1;
+        for (String symbol : symbols) {
+            int id = symbolRegistry.idOf(symbol);
+            SparseIndex index = id >= 0 && id < indexes.length ? indexes[id] : null;
+            int position = index != null ? index.floor(from) : -1;
+            if (position >= 0 && (start < 0 || position < start)) {
+                start = position;
+            }
+        }
+        return start;
+    }
+
+    private boolean matches(int offset, String[] symbols) {
+        if (symbols == null) {
+            return true;
+        }
+        for (String symbol : symbols) {
+            if (JournalRecord.symbolEquals(buffer, offset, symbol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void index(int position, int symbolId, long timestamp) {
+        if (timestamp < minTimestamp) {
+            minTimestamp = timestamp;
+        }
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+        }
+        if (timeIndex.seen++ % indexInterval == 0) {
+            timeIndex.add(timestamp, position);
+        }
+        SparseIndex index = symbolIndex(symbolId);
+        if (index.seen++ % indexInterval == 0) {
+            index.add(timestamp, position);
+        }
+    }
+
+    // A symbol the registry rejected gets a throwaway index: its records stay readable without a symbol filter
+    private SparseIndex symbolIndex(int symbolId) {
+        if (symbolId == SymbolRegistry.UNKNOWN) {
+            return new SparseIndex();
+        }
+        SparseIndex[] indexes = symbolIndex;
+        if (symbolId >= indexes.length) {
+            indexes = Arrays.copyOf(indexes, Math.max(indexes.length * 2, symbolId + 1));
+            symbolIndex = indexes;
+        }
+        SparseIndex index = indexes[symbolId];
+        if (index == null) {
+            index = new SparseIndex();
+            indexes[symbolId] = index;
+        }
+        return index;
+    }
+
+    // Picks up records written after the saved index, or all of them when there is none
+    private void recover() {
+        int position = count;
+        while (position < capacity && JournalRecord.isWritten(buffer, offset(position))) {
+            int offset = offset(position);
+            int symbolId = symbolRegistry.intern(JournalRecord.symbol(buffer, offset));
+            index(position, symbolId, JournalRecord.timestamp(buffer, offset));
+            position++;
+        }
+        count = position;
+    }
+
+    private void saveIndex() throws IOException {
+        Path temporary = indexPath().resolveSibling(indexPath().getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(count);
+            out.writeLong(minTimestamp);
+            out.writeLong(maxTimestamp);
+            writeIndex(out, timeIndex);
+            SparseIndex[] indexes = symbolIndex;
+            int symbols = 0;
+            for (SparseIndex index : indexes) {
+                symbols += index != null ? 1 : 0;
+            }
+            out.writeInt(symbols);
+            // By name: symbol ids are only stable within one run
+            for (int id = 0; id < indexes.length; id++) {
+                if (indexes[id] != null) {
+                    out.writeUTF(symbolRegistry.symbolOf(id));
+                    writeIndex(out, indexes[id]);
+                }
+            }
+        }
+        Files.move(temporary, indexPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void loadIndex() throws IOException {
+        Path indexPath = indexPath();
+        if (!Files.exists(indexPath)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                return;
+            }
+            int savedCount = in.readInt();
+            long savedMin = in.readLong();
+            long savedMax = in.readLong();
+            readIndex(in, timeIndex);
+            int symbols = in.readInt();
+            for (int i = 0; i < symbols; i++) {
+                readIndex(in, symbolIndex(symbolRegistry.intern(in.readUTF())));
+            }
+            minTimestamp = savedMin;
+            maxTimestamp = savedMax;
+            count = savedCount;
+        }
+    }
+
+    private void resetIndex() {
+        count = 0;
+        minTimestamp = Long.MAX_VALUE;
+        maxTimestamp = Long.MIN_VALUE;
+        timeIndex = new SparseIndex();
+        symbolIndex = new SparseIndex[64];
+    }
+
+    private static void writeIndex(DataOutputStream out, SparseIndex index) throws IOException {
+        int size = index.size;
+        out.writeInt(index.seen);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(index.timestamps[i]);
+            out.writeInt(index.positions[i]);
+        }
+    }
+
+    private static void readIndex(DataInputStream in, SparseIndex index) throws IOException {
+        index.seen = in.readInt();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            index.add(in.readLong(), in.readInt());
+        }
+    }
+
+    private Path indexPath() {
+        return path.resolveSibling(path.getFileName().toString().replace(SUFFIX, INDEX_SUFFIX));
+    }
+
+    private static int offset(int position) {
+        return HEADER_SIZE + position * JournalRecord.SIZE;
+    }
+}
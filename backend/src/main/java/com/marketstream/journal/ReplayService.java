@@ -0,0 +1,191 @@
+package com.marketstream.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketstream.model.Tick;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams a time range of the {@link TickJournal} to {@code /topic/replay/{id}}, through the same
+ * broker and MarketData JSON as live data, paced by the recorded timestamps at a chosen speed.
+ * Replays never touch the cache or the live destinations, so they run next to live traffic.
+ * Each replay starts after {@code app.journal.replay.start-delay-ms}, leaving the client time to
+ * subscribe to the destination it got back.
+ */
+@Component
+public class ReplayService {
+    private static final Logger logger = LoggerFactory.getLogger(ReplayService.class);
+    public static final String DESTINATION_PREFIX = "/topic/replay/";
+    private static final int MAX_RETAINED = 32;
+
+    @Autowired
+    private TickJournal tickJournal;
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${app.journal.replay.max-concurrent:4}")
+    private int maxConcurrent;
+    @Value("${app.journal.replay.start-delay-ms:1000}")
+    private long startDelayMs;
+
+    private final Map<String, Replay> replays = new ConcurrentHashMap<>();
+
+    private static class Replay {
+        final String id;
+        final Instant from;
+        final Instant to;
+        final List<String> symbols;
+        final double speed;
+        volatile long sent;
+        volatile boolean stopped;
+        volatile boolean finished;
+        volatile String error;
+        Thread thread;
+
+        Replay(String id, Instant from, Instant to, List<String> symbols, double speed) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.symbols = symbols;
+            this.speed = speed;
+        }
+
+        ReplayStatus status() {
+            return new ReplayStatus(id, DESTINATION_PREFIX + id, from, to, symbols, speed, sent, !finished, error);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        replays.values().forEach(replay -> replay.stopped = true);
+    }
+
+    // speed 1 replays in recorded time, 10 ten times faster, 0 as fast as the broker takes it
+    public synchronized ReplayStatus start(Instant from, Instant to, List<String> symbols, double speed) {
+        if (!tickJournal.isEnabled()) {
+            throw new IllegalStateException("The tick journal is disabled");
+        }
+        if (!from.isBefore(to) || speed < 0 || Double.isNaN(speed)) {
+            throw new IllegalArgumentException("Need from < to and a speed of 0 or more");
+        }
+        if (replays.values().stream().filter(replay -> !replay.finished).count() >= maxConcurrent) {
+            throw new IllegalStateException("Already running " + maxConcurrent + " replays");
+        }
+        evictFinished();
+        List<String> normalized = symbols == null ? List.of()
+                : symbols.stream().map(symbol -> symbol.trim().toUpperCase()).distinct().toList();
+        Replay replay = new Replay(UUID.randomUUID().toString().substring(0, 8), from, to, normalized, speed);
+        // Virtual: a replay spends nearly all its time parked between ticks
+        replay.thread = Thread.ofVirtual().name("journal-replay-" + replay.id).unstarted(() -> run(replay));
+        replays.put(replay.id, replay);
+        replay.thread.start();
+        logger.info("Replay {} started: {} to {}, symbols {}, speed {}", replay.id, from, to,
+                normalized.isEmpty() ? "all" : normalized, speed);
+        return replay.status();
+    }
+
+    public ReplayStatus status(String id) {
+        Replay replay = replays.get(id);
+        return replay != null ? replay.status() : null;
+    }
+
+    public List<ReplayStatus> list() {
+        List<ReplayStatus> statuses = new ArrayList<>(replays.size());
+        replays.values().forEach(replay -> statuses.add(replay.status()));
+        return statuses;
+    }
+
+    public ReplayStatus stop(String id) {
+        Replay replay = replays.get(id);
+        if (replay == null) {
+            return null;
+        }
+        replay.stopped = true;
+        LockSupport.unpark(replay.thread);
+        return replay.status();
+    }
+
+    private void run(Replay replay) {
+        String destination = DESTINATION_PREFIX + replay.id;
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(startDelayMs);
+        long[] firstTimestamp = {Long.MIN_VALUE};
+        try {
+            tickJournal.read(toNanos(replay.from), toNanos(replay.to), replay.symbols, tick -> {
+                if (firstTimestamp[0] == Long.MIN_VALUE) {
+                    firstTimestamp[0] = tick.getTimestampNanos();
+                }
+                // Recorded offset from the first tick, scaled by speed, against the replay's own clock
+                long due = replay.speed > 0
+                        ? startNanos + (long) ((tick.getTimestampNanos() - firstTimestamp[0]) / replay.speed)
+                        : startNanos;
+                if (!awaitDue(replay, due)) {
+                    return false;
+                }
+                messagingTemplate.send(destination, encode(tick));
+                replay.sent++;
+                return true;
+            });
+        } catch (RuntimeException e) {
+            replay.error = e.getMessage();
+            logger.error("Replay {} failed", replay.id, e);
+        } finally {
+            replay.finished = true;
+            logger.info("Replay {} finished after {} ticks", replay.id, replay.sent);
+        }
+    }
+
+    private static boolean awaitDue(Replay replay, long due) {
+        long wait;
+        while (!replay.stopped && (wait = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        return !replay.stopped;
+    }
+
+    // Same MarketData JSON and pre-encoded send as the live path
+    private Message<byte[]> encode(Tick tick) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(tick.toMarketData());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private void evictFinished() {
+        if (replays.size() < MAX_RETAINED) {
+            return;
+        }
+        replays.values().removeIf(replay -> replay.finished);
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
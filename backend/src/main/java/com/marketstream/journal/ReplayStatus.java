@@ -0,0 +1,65 @@
+package com.marketstream.journal;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ReplayStatus {
+    private final String id;
+    private final String destination;
+    private final Instant from;
+    private final Instant to;
+    private final List<String> symbols;
+    private final double speed;
+    private final long sent;
+    private final boolean running;
+    private final String error;
+
+    public ReplayStatus(String id, String destination, Instant from, Instant to, List<String> symbols, double speed,
+            long sent, boolean running, String error) {
+        this.id = id;
+        this.destination = destination;
+        this.from = from;
+        this.to = to;
+        this.symbols = symbols;
+        this.speed = speed;
+        this.sent = sent;
+        this.running = running;
+        this.error = error;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
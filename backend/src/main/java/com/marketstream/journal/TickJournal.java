@@ -0,0 +1,331 @@
+package com.marketstream.journal;
+
+import com.marketstream.cluster.ClusterNode;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only history of every tick the consumer receives, kept in rolling memory-mapped segment
+ * files under {@code app.journal.dir}, or under {@code <dir>/<app.cluster.node-id>} when the node
+ * has a configured id, so a restarted instance finds its own segments again. Consumer threads only copy a
+ * tick into a pre-allocated staging ring and return; a single writer thread moves the records into
+ * the active {@link JournalSegment}, rolls to a new segment when it is full and deletes the oldest
+ * beyond {@code app.journal.max-segments}.
+ * <p>
+ * Records are in the page cache as soon as the writer copied them, so a process crash loses only
+ * what was still staged; pages are forced to disk every {@code flush-interval-ms}, which bounds
+ * the loss on a machine crash. The journal never blocks the consumer: while the writer is a whole
+ * staging ring behind, new ticks are dropped and counted in {@code marketstream.journal.dropped}.
+ */
+@Component
+public class TickJournal {
+    private static final Logger logger = LoggerFactory.getLogger(TickJournal.class);
+    private static final int SPIN_TRIES = 1_000;
+    private static final int YIELD_TRIES = 100;
+    private static final int MAX_TRIES = SPIN_TRIES + YIELD_TRIES;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ClusterNode clusterNode;
+    @Value("${app.journal.enabled:false}")
+    private boolean enabled;
+    @Value("${app.journal.dir:data/journal}")
+    private String directory;
+    @Value("${app.journal.segment-size-mb:128}")
+    private int segmentSizeMb;
+    @Value("${app.journal.max-segments:8}")
+    private int maxSegments;
+    @Value("${app.journal.index-interval:64}")
+    private int indexInterval;
+    @Value("${app.journal.staging-size:65536}")
+    private int requestedStagingSize;
+    @Value("${app.journal.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    private ByteBuffer staging;
+    private int[] stagedSymbolIds;
+    private AtomicLongArray published;
+    private int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private volatile long writtenSequence = -1;
+    private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+    private int segmentCapacity;
+    // Writer thread only, once started
+    private JournalSegment active;
+    private Thread writer;
+    private volatile boolean running;
+    private Counter appendedCounter;
+    private Counter skippedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            logger.info("Tick journal disabled");
+            return;
+        }
+        // Segments index every indexInterval-th record of a symbol, on the writer thread
+        if (indexInterval < 1) {
+            throw new IllegalArgumentException("app.journal.index-interval must be at least 1, was " + indexInterval);
+        }
+        // Keyed only on a configured, stable id; without one the directory must already be per instance
+        String nodeId = clusterNode.getNodeId();
+        Path path = nodeId != null ? Paths.get(directory, nodeId) : Paths.get(directory);
+        Files.createDirectories(path);
+        if (nodeId == null) {
+            pruneNodeDirectories(path);
+        }
+        long recordsPerSegment = (segmentSizeMb * BYTES_PER_MB - JournalSegment.HEADER_SIZE) / JournalRecord.SIZE;
+        // A single mapping is limited to 2GB
+        segmentCapacity = (int) Math.min(Math.max(recordsPerSegment, 1),
+                (Integer.MAX_VALUE - JournalSegment.HEADER_SIZE) / JournalRecord.SIZE);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(path)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            try {
+                segments.add(JournalSegment.open(file, indexInterval, symbolRegistry));
+            } catch (IOException e) {
+                logger.error("Skipping unreadable journal segment {}", file, e);
+            }
+        }
+        active = segments.isEmpty() || segments.get(segments.size() - 1).isFull()
+                ? newSegment(path, segments.isEmpty() ? 1 : segments.get(segments.size() - 1).number() + 1)
+                : segments.get(segments.size() - 1);
+
+        int size = Integer.highestOneBit(Math.max(2, requestedStagingSize - 1)) << 1;
+        staging = ByteBuffer.allocateDirect(size * JournalRecord.SIZE);
+        stagedSymbolIds = new int[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        mask = size - 1;
+        appendedCounter = Counter.builder("marketstream.journal.appended").register(meterRegistry);
+        skippedCounter = Counter.builder("marketstream.journal.skipped")
+                .description("Ticks not journaled: symbol too long for the record or past the registry capacity, or the journal stopped")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("marketstream.journal.dropped")
+                .description("Ticks not journaled because the writer fell a full staging ring behind")
+                .register(meterRegistry);
+        Gauge.builder("marketstream.journal.backlog", this, journal -> journal.cursor.get() - journal.writtenSequence)
+                .description("Ticks staged but not yet copied into a segment")
+                .register(meterRegistry);
+        Gauge.builder("marketstream.journal.segments", segments, List::size).register(meterRegistry);
+
+        running = true;
+        writer = new Thread(() -> write(path), "tick-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Tick journal at {}: {} segments, {} records per segment", path.toAbsolutePath(),
+                segments.size(), segmentCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        // The writer drains what is staged and seals the active segment before it exits
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Copies the tick, so callers may reuse it right away
+    public void append(Tick tick) {
+        if (!running) {
+            return;
+        }
+        int symbolId = symbolRegistry.resolve(tick);
+        if (symbolId == SymbolRegistry.UNKNOWN || !JournalRecord.fits(tick)) {
+            skippedCounter.increment();
+            return;
+        }
+        long sequence = claim();
+        if (sequence < 0) {
+            droppedCounter.increment();
+            return;
+        }
+        int index = (int) (sequence & mask);
+        JournalRecord.write(tick, staging, index * JournalRecord.SIZE);
+        stagedSymbolIds[index] = symbolId;
+        published.setRelease(index, sequence);
+    }
+
+    public void appendAll(List<Tick> ticks) {
+        for (Tick tick : ticks) {
+            append(tick);
+        }
+    }
+
+    /**
+     * Feeds journaled ticks with timestamps (epoch nanos) in [from, to] to the sink, oldest segment
+     * first, until it returns false. A null or empty symbol collection means every symbol. The Tick
+     * is reused between calls. Returns false if the sink stopped the read.
+     */
+    public boolean read(long fromNanos, long toNanos, Collection<String> symbols, Predicate<Tick> sink) {
+        String[] filter = symbols == null || symbols.isEmpty() ? null : symbols.toArray(new String[0]);
+        Tick scratch = new Tick();
+        for (JournalSegment segment : segments) {
+            if (segment.overlaps(fromNanos, toNanos) && !segment.read(fromNanos, toNanos, filter, scratch, sink)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Claims a staging slot only while one is free, so a slow disk never holds up the consumer: after a
+    // short spin the tick is dropped and counted instead. Returns -1 when nothing was claimed.
+    private long claim() {
+        for (int tries = 0; ; tries++) {
+            long current = cursor.get();
+            long sequence = current + 1;
+            if (sequence - published.length() > writtenSequence) {
+                if (tries >= SPIN_TRIES || !running) {
+                    return -1;
+                }
+                Thread.onSpinWait();
+            } else if (cursor.compareAndSet(current, sequence)) {
+                return sequence;
+            }
+        }
+    }
+
+    private void write(Path path) {
+        long next = writtenSequence + 1;
+        long nextFlush = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        int idleTries = 0;
+        try {
+            while (true) {
+                long available = next - 1;
+                while (available - next + 1 < published.length()
+                        && published.getAcquire((int) ((available + 1) & mask)) == available + 1) {
+                    available++;
+                }
+                if (available < next) {
+                    if (!running) {
+                        break;
+                    }
+                    idle(idleTries);
+                    idleTries = Math.min(idleTries + 1, MAX_TRIES);
+                } else {
+                    idleTries = 0;
+                    for (long sequence = next; sequence <= available; sequence++) {
+                        int index = (int) (sequence & mask);
+                        if (active.isFull()) {
+                            roll(path);
+                        }
+                        active.append(staging, index * JournalRecord.SIZE, stagedSymbolIds[index]);
+                    }
+                    appendedCounter.increment(available - next + 1);
+                    writtenSequence = available;
+                    next = available + 1;
+                }
+                if (System.nanoTime() - nextFlush >= 0) {
+                    active.force();
+                    nextFlush = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                }
+            }
+            active.seal();
+        } catch (IOException | RuntimeException e) {
+            // Stop journaling rather than block the consumer behind a broken disk
+            running = false;
+            logger.error("Tick journal writer failed; journaling stopped", e);
+        }
+    }
+
+    private void roll(Path path) throws IOException {
+        active.seal();
+        active = newSegment(path, active.number() + 1);
+        List<JournalSegment> expired = new ArrayList<>();
+        while (segments.size() > Math.max(1, maxSegments)) {
+            expired.add(segments.remove(0));
+        }
+        for (JournalSegment segment : expired) {
+            segment.delete();
+        }
+    }
+
+    // Per-node subdirectories left by earlier runs under ids that no longer exist; nothing reads them again
+    private static void pruneNodeDirectories(Path path) throws IOException {
+        List<Path> directories;
+        try (Stream<Path> listing = Files.list(path)) {
+            directories = listing.filter(Files::isDirectory).toList();
+        }
+        for (Path orphan : directories) {
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(orphan)) {
+                files = listing.toList();
+            }
+            if (files.stream().allMatch(TickJournal::isSegmentFile)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+                Files.delete(orphan);
+                logger.info("Removed orphaned journal directory {} ({} files)", orphan, files.size());
+            }
+        }
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return Files.isRegularFile(file) && (name.endsWith(JournalSegment.SUFFIX)
+                || name.endsWith(JournalSegment.INDEX_SUFFIX) || name.endsWith(JournalSegment.INDEX_SUFFIX + ".tmp"));
+    }
+
+    private JournalSegment newSegment(Path path, long number) throws IOException {
+        JournalSegment segment = JournalSegment.create(path, number, segmentCapacity, indexInterval, symbolRegistry);
+        segments.add(segment);
+        return segment;
+    }
+
+    // Spin, then yield, then park, as in the ring transport
+    private static void idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+}
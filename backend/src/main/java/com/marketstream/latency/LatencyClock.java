@@ -0,0 +1,33 @@
+package com.marketstream.latency;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+// Monotonic stamps for the tick pipeline, always positive so 0 can mean "not stamped"
+public final class LatencyClock {
+    public static final String ORIGIN_HEADER = "ms-origin";
+    private static final long EPOCH = System.nanoTime() - 1;
+    // System.nanoTime is only comparable within one JVM, so the header names the process that stamped it
+    private static final long PROCESS_TOKEN = new SplittableRandom().nextLong();
+    private static final int ORIGIN_HEADER_SIZE = 2 * Long.BYTES;
+
+    private LatencyClock() {
+    }
+
+    public static long now() {
+        return System.nanoTime() - EPOCH;
+    }
+
+    public static byte[] encodeOrigin(long originNanos) {
+        return ByteBuffer.allocate(ORIGIN_HEADER_SIZE).putLong(PROCESS_TOKEN).putLong(originNanos).array();
+    }
+
+    // 0 when the stamp came from another process or is malformed
+    public static long decodeOrigin(byte[] value) {
+        if (value == null || value.length != ORIGIN_HEADER_SIZE) {
+            return 0L;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        return buffer.getLong() == PROCESS_TOKEN ? buffer.getLong() : 0L;
+    }
+}
@@ -0,0 +1,27 @@
+package com.marketstream.latency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/latency dumps the live histograms; DELETE starts them over
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+    @Autowired
+    private LatencyTracker latencyTracker;
+
+    @ReadOperation
+    public Map<String, Map<String, Map<String, LatencySummary>>> histograms() {
+        return latencyTracker.dump();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        latencyTracker.reset();
+    }
+}
@@ -0,0 +1,23 @@
+package com.marketstream.latency;
+
+import java.util.Locale;
+
+// Segments of a tick's path, each timed on its own; END_TO_END spans origin to fan-out done
+public enum LatencyStage {
+    // publish() until the transport acknowledged the tick
+    PRODUCE_ACK,
+    // publish() until the consumer started decoding the record (or a ring reader picked it up)
+    BROKER_TO_CONSUMER,
+    DESERIALIZE,
+    // Off-heap/Redis cache and snapshot update
+    CACHE_WRITE,
+    // Encoding and handing the tick to the session dispatcher or broker
+    FAN_OUT,
+    // Message sent to a session until the client's echo of it arrived, so it includes the echo's trip back
+    CLIENT_RECEIVE,
+    END_TO_END;
+
+    public String tagValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,73 @@
+package com.marketstream.latency;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+// One histogram as served by the latency actuator endpoint; values in microseconds
+public class LatencySummary {
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final long count;
+    private final double minUs;
+    private final double meanUs;
+    private final double p50Us;
+    private final double p90Us;
+    private final double p99Us;
+    private final double p999Us;
+    private final double maxUs;
+    // Compressed HDR encoding of the full histogram, loadable with HdrHistogram's decodeFromCompressedByteBuffer
+    private final String histogram;
+
+    public LatencySummary(Histogram source) {
+        this.count = source.getTotalCount();
+        this.minUs = count > 0 ? source.getMinValue() / NANOS_PER_MICRO : 0;
+        this.meanUs = count > 0 ? source.getMean() / NANOS_PER_MICRO : 0;
+        this.p50Us = source.getValueAtPercentile(50) / NANOS_PER_MICRO;
+        this.p90Us = source.getValueAtPercentile(90) / NANOS_PER_MICRO;
+        this.p99Us = source.getValueAtPercentile(99) / NANOS_PER_MICRO;
+        this.p999Us = source.getValueAtPercentile(99.9) / NANOS_PER_MICRO;
+        this.maxUs = source.getMaxValue() / NANOS_PER_MICRO;
+        ByteBuffer buffer = ByteBuffer.allocate(source.getNeededByteBufferCapacity());
+        int length = source.encodeIntoCompressedByteBuffer(buffer);
+        this.histogram = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMinUs() {
+        return minUs;
+    }
+
+    public double getMeanUs() {
+        return meanUs;
+    }
+
+    public double getP50Us() {
+        return p50Us;
+    }
+
+    public double getP90Us() {
+        return p90Us;
+    }
+
+    public double getP99Us() {
+        return p99Us;
+    }
+
+    public double getP999Us() {
+        return p999Us;
+    }
+
+    public double getMaxUs() {
+        return maxUs;
+    }
+
+    public String getHistogram() {
+        return histogram;
+    }
+}
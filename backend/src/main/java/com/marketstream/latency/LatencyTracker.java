@@ -0,0 +1,161 @@
+package com.marketstream.latency;
+
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HDR histograms of tick latency per {@link LatencyStage} and symbol group. The hot path records
+ * into wait-free {@link Recorder}s; every {@code app.latency.interval-ms} the recorders are swapped
+ * out, the interval histogram backs the Prometheus percentile gauges and is folded into a
+ * cumulative histogram for the {@code /actuator/latency} dump. Groups come from the symbol
+ * universe file, which keeps the number of series bounded.
+ */
+@Component
+public class LatencyTracker {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${app.latency.enabled:true}")
+    private boolean enabled;
+
+    // group -> histograms indexed by stage ordinal
+    private final Map<String, StageHistograms[]> groups = new ConcurrentHashMap<>();
+
+    private static final class StageHistograms {
+        final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        volatile Histogram interval = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        // Guarded by this
+        Histogram cumulative = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+
+        void record(long nanos) {
+            recorder.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+        }
+
+        // A fresh interval histogram each time, since the gauges may still be reading the previous one
+        synchronized void rotate() {
+            Histogram next = recorder.getIntervalHistogram();
+            cumulative.add(next);
+            interval = next;
+        }
+
+        synchronized long totalCount() {
+            return cumulative.getTotalCount();
+        }
+
+        synchronized Histogram cumulativeCopy() {
+            return cumulative.copy();
+        }
+
+        synchronized void reset() {
+            recorder.reset();
+            cumulative = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+            interval = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(LatencyStage stage, int symbolId, long nanos) {
+        if (!enabled || nanos < 0) {
+            return;
+        }
+        histograms(symbolRegistry.groupOf(symbolId))[stage.ordinal()].record(nanos);
+    }
+
+    // From a LatencyClock stamp to now; ticks that were never stamped are skipped
+    public void recordSince(LatencyStage stage, int symbolId, long startNanos) {
+        if (startNanos > 0) {
+            record(stage, symbolId, LatencyClock.now() - startNanos);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.latency.interval-ms:10000}")
+    public void rotate() {
+        for (StageHistograms[] stages : groups.values()) {
+            for (StageHistograms histograms : stages) {
+                histograms.rotate();
+            }
+        }
+    }
+
+    // group -> stage -> {interval, cumulative}, for the actuator endpoint
+    public Map<String, Map<String, Map<String, LatencySummary>>> dump() {
+        Map<String, Map<String, Map<String, LatencySummary>>> result = new TreeMap<>();
+        groups.forEach((group, stages) -> {
+            Map<String, Map<String, LatencySummary>> byStage = new LinkedHashMap<>();
+            for (LatencyStage stage : LatencyStage.values()) {
+                StageHistograms histograms = stages[stage.ordinal()];
+                Histogram cumulative = histograms.cumulativeCopy();
+                if (cumulative.getTotalCount() == 0) {
+                    continue;
+                }
+                Map<String, LatencySummary> summaries = new LinkedHashMap<>();
+                summaries.put("interval", new LatencySummary(histograms.interval));
+                summaries.put("cumulative", new LatencySummary(cumulative));
+                byStage.put(stage.tagValue(), summaries);
+            }
+            result.put(group, byStage);
+        });
+        return result;
+    }
+
+    public void reset() {
+        for (StageHistograms[] stages : groups.values()) {
+            for (StageHistograms histograms : stages) {
+                histograms.reset();
+            }
+        }
+    }
+
+    private StageHistograms[] histograms(String group) {
+        StageHistograms[] stages = groups.get(group);
+        return stages != null ? stages : groups.computeIfAbsent(group, this::register);
+    }
+
+    private StageHistograms[] register(String group) {
+        StageHistograms[] stages = new StageHistograms[LatencyStage.values().length];
+        for (LatencyStage stage : LatencyStage.values()) {
+            StageHistograms histograms = new StageHistograms();
+            stages[stage.ordinal()] = histograms;
+            for (double quantile : QUANTILES) {
+                Gauge.builder("marketstream.latency", histograms,
+                                h -> h.interval.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND)
+                        .description("Tick latency per pipeline stage over the last interval")
+                        .baseUnit("seconds")
+                        .tags("stage", stage.tagValue(), "group", group, "quantile", Double.toString(quantile))
+                        .register(meterRegistry);
+            }
+            Gauge.builder("marketstream.latency.max", histograms,
+                            h -> h.interval.getMaxValue() / NANOS_PER_SECOND)
+                    .baseUnit("seconds")
+                    .tags("stage", stage.tagValue(), "group", group)
+                    .register(meterRegistry);
+            FunctionCounter.builder("marketstream.latency.count", histograms, StageHistograms::totalCount)
+                    .tags("stage", stage.tagValue(), "group", group)
+                    .register(meterRegistry);
+        }
+        return stages;
+    }
+}
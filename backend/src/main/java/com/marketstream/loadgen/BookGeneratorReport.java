@@ -0,0 +1,63 @@
+package com.marketstream.loadgen;
+
+public class BookGeneratorReport {
+    private final boolean running;
+    private final long targetRate;
+    private final int symbols;
+    private final long elapsedMs;
+    private final long updates;
+    private final long failedBatches;
+    private final double achievedRate;
+
+    public BookGeneratorReport(boolean running, long targetRate, int symbols, long elapsedMs, long updates,
+            long failedBatches, double achievedRate) {
+        this.running = running;
+        this.targetRate = targetRate;
+        this.symbols = symbols;
+        this.elapsedMs = elapsedMs;
+        this.updates = updates;
+        this.failedBatches = failedBatches;
+        this.achievedRate = achievedRate;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getTargetRate() {
+        return targetRate;
+    }
+
+    public int getSymbols() {
+        return symbols;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public long getFailedBatches() {
+        return failedBatches;
+    }
+
+    public double getAchievedRate() {
+        return achievedRate;
+    }
+
+    @Override
+    public String toString() {
+        return "BookGeneratorReport{" +
+                "running=" + running +
+                ", targetRate=" + targetRate +
+                ", symbols=" + symbols +
+                ", elapsedMs=" + elapsedMs +
+                ", updates=" + updates +
+                ", failedBatches=" + failedBatches +
+                ", achievedRate=" + achievedRate +
+                '}';
+    }
+}
@@ -0,0 +1,237 @@
+package com.marketstream.loadgen;
+
+import com.marketstream.model.BookUpdateBatch;
+import com.marketstream.symbol.SymbolRegistry;
+import com.marketstream.transport.BookUpdatePublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic level-2 feed for the order-book engine: one thread cycling through the first N active
+ * symbols, sending a batch of price-level updates per symbol at a target rate of updates per
+ * second, paced like {@link LoadGenerator}. Each symbol starts with a CLEAR and a full ladder of
+ * levels around its base price; after that its mid walks by at most one tick per batch and the
+ * updates resize, add and delete levels, skewed towards the top of the book.
+ */
+@Component
+public class BookUpdateGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(BookUpdateGenerator.class);
+    private static final int PRICE_SCALE = 2;
+    private static final long MAX_CATCH_UP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private BookUpdatePublisher bookUpdatePublisher;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${app.order-book.generator.enabled:false}")
+    private boolean startOnBoot;
+    @Value("${app.order-book.generator.rate:100000}")
+    private long defaultRate;
+    @Value("${app.order-book.generator.symbols:100}")
+    private int defaultSymbolCount;
+    @Value("${app.order-book.generator.batch-size:32}")
+    private int batchSize;
+    @Value("${app.order-book.generator.levels:20}")
+    private int levels;
+
+    private Counter sentCounter;
+    private volatile Run run;
+
+    private static class Run {
+        final long rate;
+        final int symbolCount;
+        final long startNanos = System.nanoTime();
+        final LongAdder updates = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        Thread worker;
+        volatile boolean stopped;
+        volatile long stopNanos;
+
+        Run(long rate, int symbolCount) {
+            this.rate = rate;
+            this.symbolCount = symbolCount;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        sentCounter = Counter.builder("marketstream.book.generator.sent")
+                .description("Generated price-level updates handed to the transport")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (startOnBoot) {
+            start(null, null);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stop();
+    }
+
+    // Null arguments fall back to the app.order-book.generator.* settings
+    public synchronized BookGeneratorReport start(Long rate, Integer symbolCount) {
+        stop();
+        long target = rate != null ? rate : defaultRate;
+        int count = symbolCount != null ? symbolCount : defaultSymbolCount;
+        if (target <= 0 || count <= 0) {
+            throw new IllegalArgumentException("Rate and symbol count must be positive");
+        }
+        int[] ids = new int[count];
+        int selected = 0;
+        for (int id = 0; id < symbolRegistry.size() && selected < count; id++) {
+            if (symbolRegistry.isActive(id)) {
+                ids[selected++] = id;
+            }
+        }
+        if (selected == 0) {
+            throw new IllegalArgumentException("No active symbols");
+        }
+        int[] owned = Arrays.copyOf(ids, selected);
+        Run next = new Run(target, selected);
+        long intervalNanos = Math.max(1L, TimeUnit.SECONDS.toNanos(1) * batchSize / target);
+        next.worker = new Thread(() -> generate(next, owned, intervalNanos), "book-update-generator");
+        next.worker.setDaemon(true);
+        run = next;
+        next.worker.start();
+        logger.info("Book update generator started: {} updates/sec over {} symbols, {} per batch", target,
+                selected, batchSize);
+        return report();
+    }
+
+    public synchronized BookGeneratorReport stop() {
+        Run current = run;
+        if (current == null || current.stopped) {
+            return report();
+        }
+        current.stopped = true;
+        current.stopNanos = System.nanoTime();
+        try {
+            current.worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        BookGeneratorReport report = report();
+        logger.info("Book update generator stopped: {}", report);
+        return report;
+    }
+
+    public BookGeneratorReport report() {
+        Run current = run;
+        if (current == null) {
+            return new BookGeneratorReport(false, 0, 0, 0, 0, 0, 0);
+        }
+        long end = current.stopped ? current.stopNanos : System.nanoTime();
+        long elapsedNanos = Math.max(1L, end - current.startNanos);
+        long updates = current.updates.sum();
+        return new BookGeneratorReport(!current.stopped, current.rate, current.symbolCount,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), updates, current.failed.sum(),
+                updates * 1e9 / elapsedNanos);
+    }
+
+    private void generate(Run run, int[] ids, long intervalNanos) {
+        SplittableRandom random = new SplittableRandom();
+        long[] mids = new long[ids.length];
+        boolean[] seeded = new boolean[ids.length];
+        BookUpdateBatch batch = new BookUpdateBatch();
+        batch.setPriceScale(PRICE_SCALE);
+        int slot = 0;
+        long next = System.nanoTime();
+        while (!run.stopped) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            if (now - next > MAX_CATCH_UP_NANOS) {
+                next = now;
+            }
+            int id = ids[slot];
+            batch.clear();
+            batch.setSymbol(symbolRegistry.symbolOf(id));
+            batch.setSymbolId(id);
+            batch.setTimestampNanos(System.currentTimeMillis() * 1_000_000L);
+            if (!seeded[slot]) {
+                mids[slot] = symbolRegistry.basePriceOf(id).setScale(PRICE_SCALE, RoundingMode.HALF_UP)
+                        .unscaledValue().longValueExact();
+                seed(batch, mids[slot]);
+                seeded[slot] = true;
+            } else {
+                mids[slot] = step(batch, mids[slot], random);
+            }
+            send(run, batch);
+            slot = slot + 1 == ids.length ? 0 : slot + 1;
+            next += intervalNanos;
+        }
+    }
+
+    private void seed(BookUpdateBatch batch, long mid) {
+        batch.add(BookUpdateBatch.BID, BookUpdateBatch.CLEAR, 0L, 0L);
+        for (int level = 1; level <= levels; level++) {
+            batch.add(BookUpdateBatch.BID, BookUpdateBatch.ADD, mid - level, 100L * level);
+            batch.add(BookUpdateBatch.ASK, BookUpdateBatch.ADD, mid + level, 100L * level);
+        }
+    }
+
+    // Bids sit at mid - 1.. mid - levels and asks at mid + 1.. mid + levels, one tick (one unit) apart.
+    // When the mid moves, the level that the move brings level with the other side is deleted first,
+    // so the book never crosses
+    private long step(BookUpdateBatch batch, long mid, SplittableRandom random) {
+        int move = random.nextInt(3) - 1;
+        if (move != 0 && mid + move > levels) {
+            mid += move;
+            batch.add(move > 0 ? BookUpdateBatch.ASK : BookUpdateBatch.BID, BookUpdateBatch.DELETE, mid, 0L);
+        }
+        while (batch.size() < batchSize) {
+            byte side = random.nextBoolean() ? BookUpdateBatch.BID : BookUpdateBatch.ASK;
+            // Minimum of two uniform draws: the top levels change most often
+            int level = 1 + Math.min(random.nextInt(levels), random.nextInt(levels));
+            long price = side == BookUpdateBatch.BID ? mid - level : mid + level;
+            int roll = random.nextInt(10);
+            if (roll == 0) {
+                batch.add(side, BookUpdateBatch.DELETE, price, 0L);
+            } else {
+                batch.add(side, roll == 1 ? BookUpdateBatch.ADD : BookUpdateBatch.MODIFY, price,
+                        1 + random.nextInt(10_000));
+            }
+        }
+        return mid;
+    }
+
+    private void send(Run run, BookUpdateBatch batch) {
+        int updates = batch.size();
+        try {
+            bookUpdatePublisher.publish(batch).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    run.failed.increment();
+                }
+            });
+            run.updates.add(updates);
+            sentCounter.increment(updates);
+        } catch (RuntimeException e) {
+            run.failed.increment();
+            logger.debug("Book update send failed for symbol: {}", batch.getSymbol(), e);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.marketstream.loadgen;
+
+import com.marketstream.latency.LatencyClock;
+import com.marketstream.latency.LatencyStage;
+import com.marketstream.latency.LatencyTracker;
+import com.marketstream.model.Tick;
+import com.marketstream.service.MarketDataCache;
+import com.marketstream.snapshot.SnapshotEngine;
+import com.marketstream.symbol.SymbolRegistry;
+import com.marketstream.transport.TickPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic market data at a target rate, for stress-testing the pipeline end to end through
+ * the configured transport. Each generator thread owns a disjoint slice of the
+ * symbols with pre-allocated ticks, so per-symbol order is preserved and nothing is shared on the
+ * send path; prices walk in fixed-point longs driven by a per-thread {@link SplittableRandom}.
+ * Sends are paced against an absolute schedule, so a stall is caught up (up to one second)
+ * rather than silently lowering the rate.
+ */
+@Component
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final int PRICE_SCALE = 2;
+    private static final BigDecimal SYNTHETIC_BASE_PRICE = new BigDecimal("100.00");
+    private static final long MAX_CATCH_UP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private TickPublisher tickPublisher;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private LatencyTracker latencyTracker;
+    @Autowired
+    private SnapshotEngine snapshotEngine;
+    @Autowired
+    private MarketDataCache cacheService;
+    @Value("${app.load-generator.enabled:false}")
+    private boolean startOnBoot;
+    @Value("${app.load-generator.target-rate:50000}")
+    private long defaultTargetRate;
+    @Value("${app.load-generator.symbols:1000}")
+    private int defaultSymbolCount;
+    @Value("${app.load-generator.distribution:uniform}")
+    private String defaultDistribution;
+    @Value("${app.load-generator.zipf-exponent:1.1}")
+    private double zipfExponent;
+    @Value("${app.load-generator.burst-length:50}")
+    private int burstLength;
+    @Value("${app.load-generator.threads:2}")
+    private int threads;
+
+    private Timer sendLatency;
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private volatile Run run;
+
+    private static class Run {
+        final long targetRate;
+        final int symbolCount;
+        final String distribution;
+        final long startNanos = System.nanoTime();
+        final LongAdder sent = new LongAdder();
+        final LongAdder acked = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final List<Thread> workers = new ArrayList<>();
+        // Synthetic symbols this run added to the universe; removed again when it stops
+        final Set<String> added = new HashSet<>();
+        volatile boolean stopped;
+        volatile long stopNanos;
+
+        Run(long targetRate, int symbolCount, String distribution) {
+            this.targetRate = targetRate;
+            this.symbolCount = symbolCount;
+            this.distribution = distribution;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        sendLatency = Timer.builder("marketstream.loadgen.send_latency")
+                .description("Time from publish() until the transport accepted a generated tick")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        sentCounter = Counter.builder("marketstream.loadgen.sent").register(meterRegistry);
+        failedCounter = Counter.builder("marketstream.loadgen.failed").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (startOnBoot) {
+            start(null, null, null);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stop();
+    }
+
+    public boolean isRunning() {
+        Run current = run;
+        return current != null && !current.stopped;
+    }
+
+    // Null arguments fall back to the app.load-generator.* settings
+    public synchronized LoadReport start(Long targetRate, Integer symbolCount, String distribution) {
+        long rate = targetRate != null ? targetRate : defaultTargetRate;
+        int count = symbolCount != null ? symbolCount : defaultSymbolCount;
+        String kind = SymbolSampler.validate(distribution != null ? distribution : defaultDistribution);
+        if (rate <= 0 || count <= 0) {
+            throw new IllegalArgumentException("Target rate and symbol count must be positive");
+        }
+        if (count > symbolRegistry.capacity()) {
+            throw new IllegalArgumentException("Symbol count is above the symbol capacity of " + symbolRegistry.capacity());
+        }
+        // Only once the arguments are valid, so a rejected request leaves a running generator alone
+        stop();
+        Run next = new Run(rate, count, kind);
+        int[] ids = selectSymbols(count, next.added);
+        int workers = Math.min(threads, ids.length);
+        SplittableRandom seed = new SplittableRandom();
+        for (int worker = 0; worker < workers; worker++) {
+            int[] owned = slice(ids, worker, workers);
+            SplittableRandom random = seed.split();
+            long intervalNanos = Math.max(1L, TimeUnit.SECONDS.toNanos(1) * workers / rate);
+            Thread thread = new Thread(() -> generate(next, owned, random, intervalNanos), "load-generator-" + worker);
+            thread.setDaemon(true);
+            next.workers.add(thread);
+        }
+        run = next;
+        next.workers.forEach(Thread::start);
+        logger.info("Load generator started: {} msgs/sec over {} symbols ({}), {} threads, {} transport",
+                rate, ids.length, kind, workers, tickPublisher.name());
+        return report();
+    }
+
+    public synchronized LoadReport stop() {
+        Run current = run;
+        if (current == null || current.stopped) {
+            return report();
+        }
+        current.stopped = true;
+        current.stopNanos = System.nanoTime();
+        for (Thread worker : current.workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        removeSynthetic(current.added);
+        LoadReport report = report();
+        logger.info("Load generator stopped: {}", report);
+        return report;
+    }
+
+    public LoadReport report() {
+        Run current = run;
+        if (current == null) {
+            return new LoadReport(false, 0, 0, null, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        long end = current.stopped ? current.stopNanos : System.nanoTime();
+        long elapsedNanos = Math.max(1L, end - current.startNanos);
+        long acked = current.acked.sum();
+        double p50 = 0;
+        double p99 = 0;
+        double p999 = 0;
+        for (ValueAtPercentile percentile : sendLatency.takeSnapshot().percentileValues()) {
+            double millis = percentile.value(TimeUnit.MILLISECONDS);
+            if (percentile.percentile() == 0.5) {
+                p50 = millis;
+            } else if (percentile.percentile() == 0.99) {
+                p99 = millis;
+            } else if (percentile.percentile() == 0.999) {
+                p999 = millis;
+            }
+        }
+        return new LoadReport(!current.stopped, current.targetRate, current.symbolCount, current.distribution,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), current.sent.sum(), acked, current.failed.sum(),
+                acked * 1e9 / elapsedNanos, p50, p99, p999);
+    }
+
+    private void generate(Run run, int[] ids, SplittableRandom random, long intervalNanos) {
+        Tick[] ticks = new Tick[ids.length];
+        for (int slot = 0; slot < ids.length; slot++) {
+            ticks[slot] = baseTick(ids[slot]);
+        }
+        SymbolSampler sampler = new SymbolSampler(run.distribution, ids.length, zipfExponent, burstLength);
+        long next = System.nanoTime();
+        while (!run.stopped) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            if (now - next > MAX_CATCH_UP_NANOS) {
+                next = now;
+            }
+            Tick tick = ticks[sampler.next(random)];
+            step(tick, random);
+            send(run, tick);
+            next += intervalNanos;
+        }
+    }
+
+    private void send(Run run, Tick tick) {
+        long origin = LatencyClock.now();
+        int id = tick.getSymbolId();
+        tick.setOriginNanos(origin);
+        try {
+            // Copied or serialized inside publish(), so the tick can be mutated again right after
+            tickPublisher.publish(tick).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    run.failed.increment();
+                    failedCounter.increment();
+                } else {
+                    run.acked.increment();
+                    long elapsed = LatencyClock.now() - origin;
+                    sendLatency.record(elapsed, TimeUnit.NANOSECONDS);
+                    latencyTracker.record(LatencyStage.PRODUCE_ACK, id, elapsed);
+                }
+            });
+            run.sent.increment();
+            sentCounter.increment();
+        } catch (RuntimeException e) {
+            run.failed.increment();
+            failedCounter.increment();
+            logger.debug("Load generator send failed for symbol: {}", tick.getSymbol(), e);
+        }
+    }
+
+    // Random walk of up to 10 basis points per tick, all in fixed-point longs
+    private static void step(Tick tick, SplittableRandom random) {
+        long price = tick.getPrice();
+        long newPrice = Math.max(price + price * (random.nextInt(21) - 10) / 10_000, tick.unit());
+        long halfSpread = Math.max(1L, newPrice / 4_000);
+        tick.setPrice(newPrice);
+        tick.setBidPrice(newPrice - halfSpread);
+        tick.setAskPrice(newPrice + halfSpread);
+        tick.setChange(newPrice - price);
+        // Percent at CHANGE_PERCENT_SCALE: (delta / price) * 100 * 10^4
+        tick.setChangePercent((newPrice - price) * 1_000_000L / price);
+        tick.setVolume(1 + random.nextInt(10_000));
+        tick.setTimestampNanos(System.currentTimeMillis() * 1_000_000L);
+    }
+
+    private Tick baseTick(int id) {
+        Tick tick = new Tick(symbolRegistry.symbolOf(id), PRICE_SCALE);
+        tick.setSymbolId(id);
+        tick.setPrice(symbolRegistry.basePriceOf(id).setScale(PRICE_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact());
+        return tick;
+    }
+
+    // Out of the universe, so the 1 Hz producer stops ticking them, and out of the snapshots and the cache
+    private void removeSynthetic(Set<String> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        added.forEach(symbolRegistry::remove);
+        snapshotEngine.remove(added::contains);
+        cacheService.invalidateSymbols(added);
+        logger.info("Removed {} synthetic symbols added for the load run", added.size());
+        added.clear();
+    }
+
+    // The first count active symbols, topping the universe up with synthetic ones when it is smaller
+    private int[] selectSymbols(int count, Set<String> added) {
+        int missing = count - symbolRegistry.activeCount();
+        try {
+            for (int i = 0; missing > 0; i++) {
+                String symbol = String.format("SYM%06d", i);
+                if (!symbolRegistry.isActive(symbolRegistry.idOf(symbol))) {
+                    symbolRegistry.add(symbol, SYNTHETIC_BASE_PRICE, SymbolRegistry.SYNTHETIC_GROUP);
+                    added.add(symbol);
+                    missing--;
+                }
+            }
+        } catch (IllegalStateException e) {
+            removeSynthetic(added);
+            throw e;
+        }
+        int[] ids = new int[count];
+        int selected = 0;
+        for (int id = 0; id < symbolRegistry.size() && selected < count; id++) {
+            if (symbolRegistry.isActive(id)) {
+                ids[selected++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private static int[] slice(int[] ids, int worker, int workers) {
+        int[] owned = new int[(ids.length - worker + workers - 1) / workers];
+        for (int i = worker, slot = 0; i < ids.length; i += workers, slot++) {
+            owned[slot] = ids[i];
+        }
+        return owned;
+    }
+}
@@ -0,0 +1,99 @@
+package com.marketstream.loadgen;
+
+public class LoadReport {
+    private final boolean running;
+    private final long targetRate;
+    private final int symbols;
+    private final String distribution;
+    private final long elapsedMs;
+    private final long sent;
+    private final long acked;
+    private final long failed;
+    private final double achievedRate;
+    private final double sendLatencyP50Ms;
+    private final double sendLatencyP99Ms;
+    private final double sendLatencyP999Ms;
+
+    public LoadReport(boolean running, long targetRate, int symbols, String distribution, long elapsedMs,
+            long sent, long acked, long failed, double achievedRate,
+            double sendLatencyP50Ms, double sendLatencyP99Ms, double sendLatencyP999Ms) {
+        this.running = running;
+        this.targetRate = targetRate;
+        this.symbols = symbols;
+        this.distribution = distribution;
+        this.elapsedMs = elapsedMs;
+        this.sent = sent;
+        this.acked = acked;
+        this.failed = failed;
+        this.achievedRate = achievedRate;
+        this.sendLatencyP50Ms = sendLatencyP50Ms;
+        this.sendLatencyP99Ms = sendLatencyP99Ms;
+        this.sendLatencyP999Ms = sendLatencyP999Ms;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getTargetRate() {
+        return targetRate;
+    }
+
+    public int getSymbols() {
+        return symbols;
+    }
+
+    public String getDistribution() {
+        return distribution;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getAcked() {
+        return acked;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public double getAchievedRate() {
+        return achievedRate;
+    }
+
+    public double getSendLatencyP50Ms() {
+        return sendLatencyP50Ms;
+    }
+
+    public double getSendLatencyP99Ms() {
+        return sendLatencyP99Ms;
+    }
+
+    public double getSendLatencyP999Ms() {
+        return sendLatencyP999Ms;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadReport{" +
+                "running=" + running +
+                ", targetRate=" + targetRate +
+                ", symbols=" + symbols +
+                ", distribution='" + distribution + '\'' +
+                ", elapsedMs=" + elapsedMs +
+                ", sent=" + sent +
+                ", acked=" + acked +
+                ", failed=" + failed +
+                ", achievedRate=" + achievedRate +
+                ", sendLatencyP50Ms=" + sendLatencyP50Ms +
+                ", sendLatencyP99Ms=" + sendLatencyP99Ms +
+                ", sendLatencyP999Ms=" + sendLatencyP999Ms +
+                '}';
+    }
+}
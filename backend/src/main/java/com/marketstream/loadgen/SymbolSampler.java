@@ -0,0 +1,67 @@
+package com.marketstream.loadgen;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+// Picks the next symbol slot for a generator thread: uniform, zipf or burst; one instance per thread
+final class SymbolSampler {
+    private static final Set<String> DISTRIBUTIONS = Set.of("uniform", "zipf", "burst");
+
+    private final String distribution;
+    private final int count;
+    // Zipf: cumulative probability per rank, rank 0 being the hottest symbol
+    private final double[] cdf;
+    private final int burstLength;
+    private int burstSlot;
+    private int burstRemaining;
+
+    SymbolSampler(String distribution, int count, double zipfExponent, int burstLength) {
+        this.distribution = validate(distribution);
+        this.count = count;
+        this.burstLength = Math.max(1, burstLength);
+        this.cdf = this.distribution.equals("zipf") ? zipfCdf(count, zipfExponent) : null;
+    }
+
+    int next(SplittableRandom random) {
+        switch (distribution) {
+            case "zipf": {
+                int slot = Arrays.binarySearch(cdf, random.nextDouble());
+                return Math.min(slot >= 0 ? slot : -slot - 1, count - 1);
+            }
+            case "burst": {
+                // Runs of consecutive ticks on one random symbol, the pattern that exercises conflation
+                if (burstRemaining == 0) {
+                    burstSlot = random.nextInt(count);
+                    burstRemaining = burstLength;
+                }
+                burstRemaining--;
+                return burstSlot;
+            }
+            default:
+                return random.nextInt(count);
+        }
+    }
+
+    // Lower-cased distribution name; IllegalArgumentException for one the sampler does not know
+    static String validate(String distribution) {
+        String normalized = distribution.toLowerCase();
+        if (!DISTRIBUTIONS.contains(normalized)) {
+            throw new IllegalArgumentException("Unknown distribution: " + distribution + ", expected one of " + DISTRIBUTIONS);
+        }
+        return normalized;
+    }
+
+    private static double[] zipfCdf(int count, double exponent) {
+        double[] cdf = new double[count];
+        double total = 0;
+        for (int rank = 0; rank < count; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < count; rank++) {
+            cdf[rank] /= total;
+        }
+        return cdf;
+    }
+}
@@ -0,0 +1,111 @@
+package com.marketstream.model;
+
+import java.util.Arrays;
+
+/**
+ * Price-level updates for one symbol, in order, as carried by one order-book record. Updates are
+ * kept in parallel primitive arrays that grow as needed and are reused after {@link #clear()}, so
+ * producers and consumers can fill and drain batches without allocating per update.
+ */
+public class BookUpdateBatch {
+    public static final byte BID = 0;
+    public static final byte ASK = 1;
+    // ADD and MODIFY both set the level's size, so a missed ADD never leaves a level stuck; size 0 deletes
+    public static final byte ADD = 0;
+    public static final byte MODIFY = 1;
+    public static final byte DELETE = 2;
+    // Empties both sides of the book; sent before a full rebuild
+    public static final byte CLEAR = 3;
+
+    private String symbol;
+    private int symbolId = -1;
+    private int priceScale;
+    private long timestampNanos;
+    private byte[] sides = new byte[16];
+    private byte[] actions = new byte[16];
+    private long[] prices = new long[16];
+    private long[] sizes = new long[16];
+    private int count;
+
+    public BookUpdateBatch() {
+    }
+
+    public BookUpdateBatch(String symbol, int priceScale) {
+        this.symbol = symbol;
+        this.priceScale = priceScale;
+    }
+
+    public void add(byte side, byte action, long price, long size) {
+        if (count == sides.length) {
+            int capacity = count * 2;
+            sides = Arrays.copyOf(sides, capacity);
+            actions = Arrays.copyOf(actions, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        sides[count] = side;
+        actions[count] = action;
+        prices[count] = price;
+        sizes[count] = size;
+        count++;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        if (!symbol.equals(this.symbol)) {
+            this.symbolId = -1;
+        }
+        this.symbol = symbol;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public void setSymbolId(int symbolId) {
+        this.symbolId = symbolId;
+    }
+
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    public void setPriceScale(int priceScale) {
+        this.priceScale = priceScale;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public void setTimestampNanos(long timestampNanos) {
+        this.timestampNanos = timestampNanos;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public byte sideAt(int index) {
+        return sides[index];
+    }
+
+    public byte actionAt(int index) {
+        return actions[index];
+    }
+
+    public long priceAt(int index) {
+        return prices[index];
+    }
+
+    public long sizeAt(int index) {
+        return sizes[index];
+    }
+}
@@ -0,0 +1,64 @@
+package com.marketstream.model;
+
+import java.util.List;
+
+public class SubscriptionRequest {
+    private List<String> symbols;
+    // MarketData field names to include; empty or null means all fields
+    private List<String> fields;
+    // Minimum time between deliveries to this session; ticks in between are conflated
+    private Long throttleMs;
+    // Snapshot on subscribe, then only changed fields with a per-symbol sequence number
+    private Boolean delta;
+
+    public SubscriptionRequest() {
+    }
+
+    public SubscriptionRequest(List<String> symbols, List<String> fields, Long throttleMs) {
+        this.symbols = symbols;
+        this.fields = fields;
+        this.throttleMs = throttleMs;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public Long getThrottleMs() {
+        return throttleMs;
+    }
+
+    public void setThrottleMs(Long throttleMs) {
+        this.throttleMs = throttleMs;
+    }
+
+    public Boolean getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Boolean delta) {
+        this.delta = delta;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriptionRequest{" +
+                "symbols=" + symbols +
+                ", fields=" + fields +
+                ", throttleMs=" + throttleMs +
+                ", delta=" + delta +
+                '}';
+    }
+}
@@ -0,0 +1,244 @@
+package com.marketstream.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Mutable, primitive tick used on the hot path in place of {@link MarketData}.
+ * Prices are fixed-point longs in units of the symbol's tick size (10^-priceScale),
+ * the timestamp is epoch nanos. Instances are meant to be reused: the producer keeps
+ * one per symbol and the cache copies into its own slots, so {@link MarketData} is only
+ * built at the REST/WebSocket edge.
+ */
+public final class Tick {
+    public static final int CHANGE_PERCENT_SCALE = 4;
+    private static final int MAX_PRICE_SCALE = 8;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L };
+
+    private String symbol;
+    // Dense id from the SymbolRegistry, resolved once per tick; -1 until then
+    private int symbolId = -1;
+    private int priceScale;
+    private long price;
+    private long bidPrice;
+    private long askPrice;
+    private long change;
+    private long changePercent;
+    private long volume;
+    private long timestampNanos;
+    // LatencyClock stamps for per-stage latency; 0 when not stamped
+    private long originNanos;
+    private long receivedNanos;
+    private long decodedNanos;
+    // JSON exactly as it arrived from Kafka, when the record was JSON; lets fan-out skip re-encoding
+    private byte[] sourceJson;
+
+    public Tick() {
+    }
+
+    public Tick(String symbol, int priceScale) {
+        this.symbol = symbol;
+        this.priceScale = priceScale;
+    }
+
+    // Copies the values only; sourceJson belongs to the decoded record and is never carried over
+    public void copyFrom(Tick other) {
+        this.symbol = other.symbol;
+        this.symbolId = other.symbolId;
+        this.priceScale = other.priceScale;
+        this.price = other.price;
+        this.bidPrice = other.bidPrice;
+        this.askPrice = other.askPrice;
+        this.change = other.change;
+        this.changePercent = other.changePercent;
+        this.volume = other.volume;
+        this.timestampNanos = other.timestampNanos;
+        this.originNanos = other.originNanos;
+        this.receivedNanos = other.receivedNanos;
+        this.decodedNanos = other.decodedNanos;
+    }
+
+    // One unit of the price scale, e.g. 100 for a 0.01 tick size
+    public long unit() {
+        return POWERS_OF_TEN[priceScale];
+    }
+
+    public MarketData toMarketData() {
+        MarketData marketData = new MarketData(symbol,
+                BigDecimal.valueOf(price, priceScale),
+                BigDecimal.valueOf(bidPrice, priceScale),
+                BigDecimal.valueOf(askPrice, priceScale),
+                volume,
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(0, timestampNanos), ZoneId.systemDefault()));
+        marketData.setChange(BigDecimal.valueOf(change, priceScale));
+        marketData.setChangePercent(BigDecimal.valueOf(changePercent, CHANGE_PERCENT_SCALE));
+        return marketData;
+    }
+
+    public static Tick fromMarketData(MarketData marketData) {
+        Tick tick = new Tick(marketData.getSymbol(), priceScaleOf(marketData));
+        tick.price = toFixed(marketData.getPrice(), tick.priceScale);
+        tick.bidPrice = toFixed(marketData.getBidPrice(), tick.priceScale);
+        tick.askPrice = toFixed(marketData.getAskPrice(), tick.priceScale);
+        tick.change = toFixed(marketData.getChange(), tick.priceScale);
+        tick.changePercent = toFixed(marketData.getChangePercent(), CHANGE_PERCENT_SCALE);
+        tick.volume = marketData.getVolume();
+        if (marketData.getTimestamp() != null) {
+            Instant instant = marketData.getTimestamp().atZone(ZoneId.systemDefault()).toInstant();
+            tick.timestampNanos = instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+        }
+        return tick;
+    }
+
+    // Widest scale of the quoted prices so none of them lose precision
+    private static int priceScaleOf(MarketData marketData) {
+        int scale = Math.max(scaleOf(marketData.getPrice()),
+                Math.max(scaleOf(marketData.getBidPrice()), scaleOf(marketData.getAskPrice())));
+        return Math.min(scale, MAX_PRICE_SCALE);
+    }
+
+    private static int scaleOf(BigDecimal value) {
+        return value != null ? Math.max(value.scale(), 0) : 0;
+    }
+
+    private static long toFixed(BigDecimal value, int scale) {
+        return value != null ? value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    // Getters and setters
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+        this.symbolId = -1;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public void setSymbolId(int symbolId) {
+        this.symbolId = symbolId;
+    }
+
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    public void setPriceScale(int priceScale) {
+        if (priceScale < 0 || priceScale > MAX_PRICE_SCALE) {
+            throw new IllegalArgumentException("Price scale out of range: " + priceScale);
+        }
+        this.priceScale = priceScale;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public void setPrice(long price) {
+        this.price = price;
+    }
+
+    public long getBidPrice() {
+        return bidPrice;
+    }
+
+    public void setBidPrice(long bidPrice) {
+        this.bidPrice = bidPrice;
+    }
+
+    public long getAskPrice() {
+        return askPrice;
+    }
+
+    public void setAskPrice(long askPrice) {
+        this.askPrice = askPrice;
+    }
+
+    public long getChange() {
+        return change;
+    }
+
+    public void setChange(long change) {
+        this.change = change;
+    }
+
+    public long getChangePercent() {
+        return changePercent;
+    }
+
+    public void setChangePercent(long changePercent) {
+        this.changePercent = changePercent;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public void setVolume(long volume) {
+        this.volume = volume;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public void setTimestampNanos(long timestampNanos) {
+        this.timestampNanos = timestampNanos;
+    }
+
+    // Taken by the producer right before publish(), not part of the market data itself
+    public long getOriginNanos() {
+        return originNanos;
+    }
+
+    public void setOriginNanos(long originNanos) {
+        this.originNanos = originNanos;
+    }
+
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    public void setReceivedNanos(long receivedNanos) {
+        this.receivedNanos = receivedNanos;
+    }
+
+    public long getDecodedNanos() {
+        return decodedNanos;
+    }
+
+    public void setDecodedNanos(long decodedNanos) {
+        this.decodedNanos = decodedNanos;
+    }
+
+    public byte[] getSourceJson() {
+        return sourceJson;
+    }
+
+    public void setSourceJson(byte[] sourceJson) {
+        this.sourceJson = sourceJson;
+    }
+
+    @Override
+    public String toString() {
+        return "Tick{" +
+                "symbol='" + symbol + '\'' +
+                ", priceScale=" + priceScale +
+                ", price=" + price +
+                ", bidPrice=" + bidPrice +
+                ", askPrice=" + askPrice +
+                ", volume=" + volume +
+                ", change=" + change +
+                ", changePercent=" + changePercent +
+                ", timestampNanos=" + timestampNanos +
+                '}';
+    }
+}
@@ -1,59 +1,271 @@
 package com.marketstream.service;
 
+import com.marketstream.cache.InvalidationReport;
+import com.marketstream.cache.OffHeapTickStore;
+import com.marketstream.cache.RedisInvalidator;
+import com.marketstream.cache.RedisWriteBehind;
 import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class MarketDataCache {
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataCache.class);
+    private static final String PRIMARY_OFF_HEAP = "off-heap";
     @Autowired(required = false)
     private RedisTemplate<String, MarketData> redisTemplate;
-    // Fallback in-memory cache if Redis is not available
-    private final ConcurrentHashMap<String, MarketData> inMemoryCache = new ConcurrentHashMap<>();
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    // off-heap: the local store serves every read and Redis is written behind asynchronously;
+    // redis: Redis is read and written synchronously, with the local store as fallback
+    @Value("${app.cache.primary:off-heap}")
+    private String primaryTier;
+    @Value("${app.cache.off-heap.capacity:131072}")
+    private int offHeapCapacity;
+    @Value("${app.cache.write-behind.flush-interval-ms:100}")
+    private long flushIntervalMs;
+    @Value("${app.cache.write-behind.batch-size:500}")
+    private int flushBatchSize;
+    @Value("${app.cache.invalidation.batch-size:500}")
+    private int invalidationBatchSize;
+    // Last value per symbol id, used as the fallback when Redis is not available
+    private OffHeapTickStore localStore;
+    private RedisWriteBehind writeBehind;
+    private RedisInvalidator invalidator;
+    private Timer invalidationTimer;
+    private boolean offHeapPrimary;
     private static final String CACHE_KEY_PREFIX = "market:data:";
     private static final Duration CACHE_EXPIRY = Duration.ofMinutes(5);
 
-    public void cacheMarketData(MarketData marketData) {
-        String cacheKey = CACHE_KEY_PREFIX + marketData.getSymbol();
+    @PostConstruct
+    void init() {
+        localStore = new OffHeapTickStore(offHeapCapacity);
+        offHeapPrimary = PRIMARY_OFF_HEAP.equalsIgnoreCase(primaryTier);
+        if (offHeapPrimary && redisTemplate != null) {
+            writeBehind = new RedisWriteBehind(redisTemplate, localStore, symbolRegistry, meterRegistry,
+                    CACHE_KEY_PREFIX, CACHE_EXPIRY, flushIntervalMs, flushBatchSize);
+            writeBehind.start();
+        }
         if (redisTemplate != null) {
+            invalidator = new RedisInvalidator(redisTemplate, meterRegistry, invalidationBatchSize);
+        }
+        invalidationTimer = Timer.builder("marketstream.cache.invalidation")
+                .description("Duration of a scoped cache invalidation across both tiers")
+                .register(meterRegistry);
+        logger.info("Market data cache primary tier: {}, off-heap capacity: {} symbols", primaryTier, offHeapCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writeBehind != null) {
+            writeBehind.stop();
+        }
+    }
+
+    public void cacheMarketData(MarketData marketData) {
+        cacheTick(Tick.fromMarketData(marketData));
+    }
+
+    public void cacheTick(Tick tick) {
+        if (offHeapPrimary) {
+            int id = storeLocally(tick);
+            if (writeBehind != null && id != SymbolRegistry.UNKNOWN) {
+                writeBehind.markDirty(id);
+            }
+        } else if (redisTemplate != null) {
             try {
-                redisTemplate.opsForValue().set(cacheKey, marketData, CACHE_EXPIRY);
+                redisTemplate.opsForValue().set(CACHE_KEY_PREFIX + tick.getSymbol(), tick.toMarketData(), CACHE_EXPIRY);
             } catch (Exception e) {
-                // Fallback to in-memory cache
-                inMemoryCache.put(marketData.getSymbol(), marketData);
+                // Fallback to local cache
+                storeLocally(tick);
             }
         } else {
-            inMemoryCache.put(marketData.getSymbol(), marketData);
+            storeLocally(tick);
         }
     }
 
+    // Startup rehydration: fills the local tier for symbols without a value, and writes nothing behind to Redis
+    public int restore(Collection<Tick> ticks) {
+        Tick scratch = new Tick();
+        int restored = 0;
+        for (Tick tick : ticks) {
+            int id = symbolRegistry.resolve(tick);
+            if (id != SymbolRegistry.UNKNOWN && !localStore.get(id, scratch)) {
+                localStore.put(id, tick);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
     public MarketData getMarketData(String symbol) {
-        String cacheKey = CACHE_KEY_PREFIX + symbol;
-        if (redisTemplate != null) {
+        if (!offHeapPrimary && redisTemplate != null) {
             try {
-                MarketData cached = redisTemplate.opsForValue().get(cacheKey);
+                MarketData cached = redisTemplate.opsForValue().get(CACHE_KEY_PREFIX + symbol);
                 if (cached != null) {
                     return cached;
                 }
             } catch (Exception e) {
-                // Fallback to in-memory cache
+                // Fallback to local cache
             }
         }
-        return inMemoryCache.get(symbol);
+        Tick tick = new Tick(symbol, 0);
+        return getTick(symbol, tick) ? tick.toMarketData() : null;
     }
 
-    public void clearCache() {
-        if (redisTemplate != null) {
-            try {
-                redisTemplate.getConnectionFactory().getConnection().flushDb();
-            } catch (Exception e) {
-                // Ignore
+    // One MGET for the whole batch rather than a GET per symbol; symbols with no value are left out
+    public List<MarketData> getMarketData(Collection<String> symbols) {
+        List<MarketData> found = new ArrayList<>(symbols.size());
+        List<String> missing = new ArrayList<>();
+        Tick scratch = new Tick();
+        for (String symbol : symbols) {
+            if (offHeapPrimary && getTick(symbol, scratch)) {
+                found.add(scratch.toMarketData());
+            } else {
+                missing.add(symbol);
             }
         }
-        inMemoryCache.clear();
+        if (missing.isEmpty() || redisTemplate == null) {
+            missing.forEach(symbol -> {
+                if (getTick(symbol, scratch)) {
+                    found.add(scratch.toMarketData());
+                }
+            });
+            return found;
+        }
+        List<String> keys = new ArrayList<>(missing.size());
+        missing.forEach(symbol -> keys.add(CACHE_KEY_PREFIX + symbol));
+        List<MarketData> values = null;
+        try {
+            values = redisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            // Fallback to local cache
+        }
+        for (int i = 0; i < missing.size(); i++) {
+            MarketData value = values != null ? values.get(i) : null;
+            if (value == null && getTick(missing.get(i), scratch)) {
+                value = scratch.toMarketData();
+            }
+            if (value != null) {
+                found.add(value);
+            }
+        }
+        return found;
+    }
+
+    // Lock-free read of the local tier into a caller-owned Tick
+    public boolean getTick(String symbol, Tick into) {
+        int id = symbolRegistry.idOf(symbol);
+        if (id == SymbolRegistry.UNKNOWN || !localStore.get(id, into)) {
+            return false;
+        }
+        into.setSymbol(symbol);
+        into.setSymbolId(id);
+        return true;
+    }
+
+    public InvalidationReport clearCache() {
+        return invalidatePrefix("");
+    }
+
+    // Invalidates every symbol starting with the literal prefix, locally and under market:data:<prefix>* in Redis
+    public InvalidationReport invalidatePrefix(String symbolPrefix) {
+        long start = System.nanoTime();
+        List<String> symbols = new ArrayList<>();
+        for (int id = 0; id < symbolRegistry.size(); id++) {
+            String symbol = symbolRegistry.symbolOf(id);
+            if (symbol != null && symbol.startsWith(symbolPrefix)) {
+                symbols.add(symbol);
+            }
+        }
+        int localEntries = invalidateLocally(symbols);
+        RedisInvalidator.Result redis = invalidator != null
+                ? invalidator.unlinkMatching(CACHE_KEY_PREFIX + escapeGlob(symbolPrefix) + "*")
+                : null;
+        return report("prefix:" + symbolPrefix, localEntries, redis, start);
+    }
+
+    public InvalidationReport invalidateSymbols(Collection<String> symbols) {
+        long start = System.nanoTime();
+        int localEntries = invalidateLocally(symbols);
+        RedisInvalidator.Result redis = null;
+        if (invalidator != null) {
+            List<String> keys = new ArrayList<>(symbols.size());
+            symbols.forEach(symbol -> keys.add(CACHE_KEY_PREFIX + symbol));
+            redis = invalidator.unlinkKeys(keys);
+        }
+        return report("symbols:" + symbols.size(), localEntries, redis, start);
+    }
+
+    // Local tier first, with pending write-behind cancelled, so Redis is not re-populated behind the unlink
+    private int invalidateLocally(Collection<String> symbols) {
+        Tick scratch = new Tick();
+        int removed = 0;
+        for (String symbol : symbols) {
+            int id = symbolRegistry.idOf(symbol);
+            if (id == SymbolRegistry.UNKNOWN) {
+                continue;
+            }
+            if (writeBehind != null) {
+                writeBehind.cancel(id);
+            }
+            if (localStore.get(id, scratch)) {
+                removed++;
+            }
+            localStore.remove(id);
+        }
+        return removed;
+    }
+
+    // The prefix is literal, as it is for the local tier: SCAN MATCH must not expand *, ?, [ or ] in it
+    private static String escapeGlob(String literal) {
+        StringBuilder escaped = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private InvalidationReport report(String scope, int localEntries, RedisInvalidator.Result redis, long start) {
+        long elapsed = System.nanoTime() - start;
+        invalidationTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        InvalidationReport report = new InvalidationReport(scope, localEntries,
+                redis != null ? redis.getKeys() : 0L,
+                redis != null ? redis.getBatches() : 0,
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                redis == null || redis.isComplete());
+        logger.info("Cache invalidation finished: {}", report);
+        return report;
+    }
+
+    // Symbols past the registry's capacity have no slot and are not cached
+    private int storeLocally(Tick tick) {
+        int id = symbolRegistry.resolve(tick);
+        if (id != SymbolRegistry.UNKNOWN) {
+            localStore.put(id, tick);
+        }
+        return id;
     }
-}
\ No newline at end of file
+}
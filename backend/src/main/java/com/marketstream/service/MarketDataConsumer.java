@@ -1,53 +1,191 @@
 package com.marketstream.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.marketstream.model.MarketData;
+import com.marketstream.concurrent.StripedExecutor;
+import com.marketstream.history.BarStore;
+import com.marketstream.journal.TickJournal;
+import com.marketstream.latency.LatencyClock;
+import com.marketstream.latency.LatencyStage;
+import com.marketstream.latency.LatencyTracker;
+import com.marketstream.model.Tick;
+import com.marketstream.snapshot.SnapshotEngine;
+import com.marketstream.stream.MarketDataStreamer;
+import com.marketstream.symbol.SymbolRegistry;
+import com.marketstream.websocket.EncodedTick;
+import com.marketstream.websocket.SessionDispatcher;
+import com.marketstream.websocket.TickEncoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class MarketDataConsumer {
     private static final Logger logger = LoggerFactory.getLogger(MarketDataConsumer.class);
-    @Autowired
-    private ObjectMapper objectMapper;
+    private static final String DELIVERY_MODE_CONFLATE = "conflate";
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     @Autowired
     private MarketDataCache cacheService;
+    @Autowired
+    private SessionDispatcher sessionDispatcher;
+    @Autowired
+    private TickEncoder tickEncoder;
+    @Autowired
+    private SnapshotEngine snapshotEngine;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private LatencyTracker latencyTracker;
+    @Autowired
+    private TickJournal tickJournal;
+    @Autowired
+    private BarStore barStore;
+    @Autowired
+    private MarketDataStreamer marketDataStreamer;
+    // conflate: only the latest tick per symbol in a poll is dispatched; every-tick: all ticks, in order
+    @Value("${app.kafka.consumer.delivery-mode:conflate}")
+    private String deliveryMode;
+    // Lanes keyed by symbol id: a batch's cache updates and fan-out run in parallel, each symbol in order
+    @Value("${app.kafka.consumer.workers:4}")
+    private int workerCount;
+    @Value("${app.kafka.consumer.virtual-threads:false}")
+    private boolean virtualThreads;
+    private StripedExecutor workers;
 
-    @KafkaListener(topics = "${app.kafka.topic.market-data}", groupId = "marketstream-consumer-group")
-    public void consumeMarketData(@Payload String message,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key,
-            Acknowledgment acknowledgment) {
-        try {
-            MarketData marketData = objectMapper.readValue(message, MarketData.class);
-            // Cache the latest market data
-            cacheService.cacheMarketData(marketData);
-            // Send to WebSocket subscribers
-            messagingTemplate.convertAndSend("/topic/market-data/" + marketData.getSymbol(), marketData);
-            messagingTemplate.convertAndSend("/topic/market-data/all", marketData);
-            logger.debug("Processed market data for symbol: {} from partition: {} at offset: {}",
-                    key, partition, offset);
-            acknowledgment.acknowledge();
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to deserialize market data message: {}", message, e);
-            // In production, you might want to send to a dead letter queue
-            acknowledgment.acknowledge();
-        } catch (Exception e) {
-            logger.error("Error processing market data message: {}", message, e);
-            // Don't acknowledge on processing error to retry
-        }
-    }
-}
\ No newline at end of file
+    @PostConstruct
+    void init() {
+        workers = new StripedExecutor("tick-worker", Math.max(1, workerCount), virtualThreads);
+        logger.info("Dispatching ticks on {} worker lanes ({} threads)", workers.stripes(),
+                virtualThreads ? "virtual" : "platform");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    // Entry points for the transports: Kafka's listener containers and the ring buffer's readers.
+    // Symbols the registry rejected (past its capacity) are dropped here, before any id-indexed state
+    public void consume(Tick tick) throws JsonProcessingException {
+        if (symbolRegistry.resolve(tick) == SymbolRegistry.UNKNOWN) {
+            return;
+        }
+        tickJournal.append(tick);
+        barStore.add(tick);
+        dispatch(tick);
+    }
+
+    // Spreads the batch over the worker lanes and returns once all of it was dispatched
+    public int consumeBatch(List<Tick> ticks) throws Exception {
+        ticks = known(ticks);
+        // Journaled and aggregated before conflation, so history keeps every tick
+        tickJournal.appendAll(ticks);
+        barStore.addAll(ticks);
+        List<Tick> toDispatch = conflate(ticks);
+        workers.forEach(toDispatch, symbolRegistry::resolve, this::dispatch);
+        return toDispatch.size();
+    }
+
+    // For callers that already are a per-symbol ordered lane, such as ring buffer readers
+    public int consumeOnCurrentThread(List<Tick> ticks) throws JsonProcessingException {
+        ticks = known(ticks);
+        tickJournal.appendAll(ticks);
+        barStore.addAll(ticks);
+        List<Tick> toDispatch = conflate(ticks);
+        for (Tick tick : toDispatch) {
+            dispatch(tick);
+        }
+        return toDispatch.size();
+    }
+
+    // Copies only when the batch holds a rejected symbol
+    private List<Tick> known(List<Tick> ticks) {
+        List<Tick> known = null;
+        for (int i = 0; i < ticks.size(); i++) {
+            Tick tick = ticks.get(i);
+            boolean rejected = symbolRegistry.resolve(tick) == SymbolRegistry.UNKNOWN;
+            if (rejected && known == null) {
+                known = new ArrayList<>(ticks.subList(0, i));
+            } else if (!rejected && known != null) {
+                known.add(tick);
+            }
+        }
+        return known != null ? known : ticks;
+    }
+
+    // conflate: the latest tick per symbol, in the order symbols first ticked; every-tick: all of them, in order
+    private List<Tick> conflate(List<Tick> ticks) {
+        if (!DELIVERY_MODE_CONFLATE.equalsIgnoreCase(deliveryMode) || ticks.size() <= 1) {
+            return ticks;
+        }
+        Map<String, Tick> latestBySymbol = new LinkedHashMap<>();
+        for (Tick tick : ticks) {
+            latestBySymbol.put(tick.getSymbol(), tick);
+        }
+        return latestBySymbol.size() == ticks.size() ? ticks : new ArrayList<>(latestBySymbol.values());
+    }
+
+    private void dispatch(Tick tick) throws JsonProcessingException {
+        boolean timed = latencyTracker.isEnabled();
+        long start = timed ? LatencyClock.now() : 0L;
+        // Cache the latest market data
+        cacheService.cacheTick(tick);
+        snapshotEngine.update(tick);
+        long cached = timed ? LatencyClock.now() : 0L;
+        // Encode once; the same frame body goes to every session and both destinations
+        EncodedTick encoded = tickEncoder.encode(tick, sessionDispatcher.hasDeltaSessions());
+        if (sessionDispatcher.isEnabled()) {
+            // Per-session conflating delivery; slow clients never back up the broker
+            sessionDispatcher.publish(encoded);
+        } else {
+            messagingTemplate.send("/topic/market-data/" + tick.getSymbol(), preEncoded(encoded));
+            messagingTemplate.send("/topic/market-data/all", preEncoded(encoded));
+        }
+        // SSE and NDJSON streams share the same encoded frame body
+        marketDataStreamer.publish(encoded);
+        if (timed) {
+            recordLatencies(tick, start, cached, LatencyClock.now());
+        }
+    }
+
+    // Stamps missing on the tick (no origin header, no decode step on the ring) skip their stages
+    private void recordLatencies(Tick tick, long start, long cached, long done) {
+        int id = tick.getSymbolId();
+        long origin = tick.getOriginNanos();
+        long received = tick.getReceivedNanos();
+        if (origin > 0 && received > 0) {
+            latencyTracker.record(LatencyStage.BROKER_TO_CONSUMER, id, received - origin);
+        }
+        if (received > 0 && tick.getDecodedNanos() > 0) {
+            latencyTracker.record(LatencyStage.DESERIALIZE, id, tick.getDecodedNanos() - received);
+        }
+        latencyTracker.record(LatencyStage.CACHE_WRITE, id, cached - start);
+        latencyTracker.record(LatencyStage.FAN_OUT, id, done - cached);
+        if (origin > 0) {
+            latencyTracker.record(LatencyStage.END_TO_END, id, done - origin);
+        }
+    }
+
+    // Sent as-is, bypassing the message converters so the JSON bytes are not re-encoded
+    private Message<byte[]> preEncoded(EncodedTick encoded) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(encoded.getPayload(), accessor.getMessageHeaders());
+    }
+}
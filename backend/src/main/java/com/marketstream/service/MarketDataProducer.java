@@ -1,96 +1,109 @@
 package com.marketstream.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.marketstream.model.MarketData;
+import com.marketstream.latency.LatencyClock;
+import com.marketstream.latency.LatencyStage;
+import com.marketstream.latency.LatencyTracker;
+import com.marketstream.loadgen.LoadGenerator;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import com.marketstream.transport.TickPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Random;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class MarketDataProducer {
     private static final Logger logger = LoggerFactory.getLogger(MarketDataProducer.class);
+    private static final int PRICE_SCALE = 2;
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private TickPublisher tickPublisher;
     @Autowired
-    private ObjectMapper objectMapper;
-    @Value("${app.kafka.topic.market-data}")
-    private String marketDataTopic;
-    private final List<String> symbols = Arrays.asList(
-            "AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", "META", "NVDA", "NFLX", "TATAINFY", "RELIANCE");
-    private final ConcurrentHashMap<String, BigDecimal> lastPrices = new ConcurrentHashMap<>();
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private LatencyTracker latencyTracker;
+    // Off on all but one node when several share a topic, or each symbol gets a price stream per node
+    @Value("${app.producer.enabled:true}")
+    private boolean enabled;
+    // One reusable tick per symbol id, created from the registry's base price; its price doubles as the last price
+    private Tick[] lastTicks = new Tick[64];
     private final Random random = new Random();
-    // Initialize with base prices
-    {
-        lastPrices.put("AAPL", new BigDecimal("150.00"));
-        lastPrices.put("GOOGL", new BigDecimal("2800.00"));
-        lastPrices.put("MSFT", new BigDecimal("300.00"));
-        lastPrices.put("AMZN", new BigDecimal("3200.00"));
-        lastPrices.put("TSLA", new BigDecimal("800.00"));
-        lastPrices.put("META", new BigDecimal("250.00"));
-        lastPrices.put("NVDA", new BigDecimal("450.00"));
-        lastPrices.put("NFLX", new BigDecimal("400.00"));
-        lastPrices.put("TATAINFY", new BigDecimal("25.00"));
-        lastPrices.put("RELIANCE", new BigDecimal("2500.00"));
-    }
 
     @Scheduled(fixedDelay = 1000) // Every second
     public void generateMarketData() {
-        symbols.forEach(this::generateAndSendMarketData);
+        if (!enabled || loadGenerator.isRunning()) {
+            // The load generator owns the feed while it runs
+            return;
+        }
+        int size = symbolRegistry.size();
+        if (size > lastTicks.length) {
+            lastTicks = Arrays.copyOf(lastTicks, Math.max(lastTicks.length * 2, size));
+        }
+        for (int id = 0; id < size; id++) {
+            if (symbolRegistry.isActive(id)) {
+                generateAndSendMarketData(id);
+            }
+        }
     }
 
-    private void generateAndSendMarketData(String symbol) {
+    private void generateAndSendMarketData(int id) {
+        String symbol = symbolRegistry.symbolOf(id);
         try {
-            MarketData marketData = generateMarketData(symbol);
-            String json = objectMapper.writeValueAsString(marketData);
-            CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(marketDataTopic, symbol, json);
-            future.whenComplete((result, ex) -> {
+            Tick tick = generateMarketData(id);
+            long origin = LatencyClock.now();
+            tick.setOriginNanos(origin);
+            // The transport copies or serializes inside publish(), so the tick can be reused on the next cycle
+            tickPublisher.publish(tick).whenComplete((result, ex) -> {
                 if (ex != null) {
                     logger.error("Failed to send market data for symbol: {}", symbol, ex);
                 } else {
-                    logger.debug("Market data sent successfully for symbol: {} at offset: {}",
-                            symbol, result.getRecordMetadata().offset());
+                    latencyTracker.recordSince(LatencyStage.PRODUCE_ACK, id, origin);
+                    logger.debug("Market data sent successfully for symbol: {}", symbol);
                 }
             });
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to serialize market data for symbol: {}", symbol, e);
+        } catch (RuntimeException e) {
+            logger.error("Failed to publish market data for symbol: {}", symbol, e);
         }
     }
 
-    private MarketData generateMarketData(String symbol) {
-        BigDecimal currentPrice = lastPrices.get(symbol);
+    private Tick generateMarketData(int id) {
+        Tick tick = lastTicks[id];
+        if (tick == null) {
+            tick = baseTick(id);
+            lastTicks[id] = tick;
+        }
+        long currentPrice = tick.getPrice();
         // Generate price change (-5% to +5%)
         double changePercent = (random.nextDouble() - 0.5) * 0.1; // -5% to +5%
-        BigDecimal priceChange = currentPrice.multiply(BigDecimal.valueOf(changePercent));
-        BigDecimal newPrice = currentPrice.add(priceChange).setScale(2, RoundingMode.HALF_UP);
+        long newPrice = currentPrice + Math.round(currentPrice * changePercent);
         // Ensure price doesn't go below 1.00
-        if (newPrice.compareTo(BigDecimal.ONE) < 0) {
-            newPrice = BigDecimal.ONE;
-        }
-        lastPrices.put(symbol, newPrice);
+        newPrice = Math.max(newPrice, tick.unit());
         // Generate bid/ask spread (0.1% to 0.5%)
-        BigDecimal spread = newPrice.multiply(BigDecimal.valueOf(random.nextDouble() * 0.004 + 0.001));
-        BigDecimal bidPrice = newPrice.subtract(spread.divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP));
-        BigDecimal askPrice = newPrice.add(spread.divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP));
+        long halfSpread = Math.round(newPrice * (random.nextDouble() * 0.004 + 0.001) / 2);
+        tick.setPrice(newPrice);
+        tick.setBidPrice(newPrice - halfSpread);
+        tick.setAskPrice(newPrice + halfSpread);
+        tick.setChange(newPrice - currentPrice);
+        tick.setChangePercent(Math.round(changePercent * 100 * 100) * 100); // 2dp at CHANGE_PERCENT_SCALE
         // Generate volume
-        long volume = 1000 + random.nextInt(9000);
-        MarketData marketData = new MarketData(symbol, newPrice, bidPrice, askPrice, volume, LocalDateTime.now());
-        marketData.setChange(priceChange);
-        marketData.setChangePercent(BigDecimal.valueOf(changePercent * 100).setScale(2, RoundingMode.HALF_UP));
-        return marketData;
+        tick.setVolume(1000 + random.nextInt(9000));
+        tick.setTimestampNanos(System.currentTimeMillis() * 1_000_000L);
+        return tick;
+    }
+
+    private Tick baseTick(int id) {
+        Tick tick = new Tick(symbolRegistry.symbolOf(id), PRICE_SCALE);
+        tick.setSymbolId(id);
+        tick.setPrice(symbolRegistry.basePriceOf(id).setScale(PRICE_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact());
+        return tick;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.marketstream.snapshot;
+
+import com.marketstream.model.MarketData;
+
+import java.util.List;
+import java.util.Map;
+
+// Immutable view of the latest value of every symbol, with its JSON body built once for all readers
+public final class MarketSnapshot {
+    private final long version;
+    private final String etag;
+    private final List<MarketData> data;
+    private final Map<String, MarketData> bySymbol;
+    private final byte[] body;
+
+    public MarketSnapshot(long version, String etag, List<MarketData> data, Map<String, MarketData> bySymbol,
+            byte[] body) {
+        this.version = version;
+        this.etag = etag;
+        this.data = data;
+        this.bySymbol = bySymbol;
+        this.body = body;
+    }
+
+    // If-None-Match may carry several tags, weak tags or *
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public List<MarketData> getData() {
+        return data;
+    }
+
+    public MarketData get(String symbol) {
+        return bySymbol.get(symbol);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
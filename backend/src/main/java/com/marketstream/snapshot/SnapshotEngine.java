@@ -0,0 +1,163 @@
+package com.marketstream.snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketstream.cache.OffHeapTickStore;
+import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Publishes the latest tick of every symbol as an immutable {@link MarketSnapshot}. Consumer lanes
+ * copy each tick into a per-symbol seqlocked slot of an {@link OffHeapTickStore} and raise a dirty
+ * flag, neither of which takes a lock. A scheduled builder reads the slots and rebuilds the snapshot,
+ * including its serialized JSON body and ETag, at most once per rebuild interval, then swaps it in
+ * with a single volatile write. Readers only ever dereference {@link #current()}, so polling the
+ * bulk endpoint costs no cache lookups and no serialization.
+ */
+@Component
+public class SnapshotEngine {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotEngine.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    // Same bound as the cache's local tier; the registry never hands out ids beyond it
+    @Value("${app.cache.off-heap.capacity:131072}")
+    private int capacity;
+
+    // Latest value per symbol id; each slot is written by the one lane that owns its symbol
+    private OffHeapTickStore latest;
+    // Raised by writers, cleared by the builder before it reads the slots, so no update is missed
+    private volatile boolean dirty;
+    // Orders builds so an older snapshot can never replace a newer one; writers never take it
+    private final Object buildLock = new Object();
+    private long version;
+    // Distinguishes this process's ETags from those handed out before a restart
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+    private volatile MarketSnapshot current;
+    // JVM uptime when the first snapshot holding any value was built; -1 until then
+    private volatile long firstSnapshotUptimeMs = -1;
+
+    @PostConstruct
+    void init() {
+        latest = new OffHeapTickStore(capacity);
+        current = build(List.of());
+        Gauge.builder("marketstream.startup.first_snapshot", this,
+                        engine -> engine.firstSnapshotUptimeMs < 0 ? Double.NaN : engine.firstSnapshotUptimeMs / 1000.0)
+                .description("Time from JVM start until the bulk snapshot first held real values")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public MarketSnapshot current() {
+        return current;
+    }
+
+    public void update(Tick tick) {
+        int id = symbolRegistry.resolve(tick);
+        if (id < 0 || id >= latest.capacity()) {
+            return;
+        }
+        latest.put(id, tick);
+        // Read first so a busy feed does not keep writing the shared flag's cache line
+        if (!dirty) {
+            dirty = true;
+        }
+    }
+
+    // Seeds symbols that have no value yet, such as last values restored at startup, and publishes at once
+    public void restore(Collection<Tick> ticks) {
+        Tick scratch = new Tick();
+        for (Tick tick : ticks) {
+            int id = symbolRegistry.resolve(tick);
+            if (id >= 0 && id < latest.capacity() && !latest.get(id, scratch)) {
+                latest.put(id, tick);
+            }
+        }
+        rebuild();
+    }
+
+    // Drops invalidated symbols so the next snapshot no longer lists them
+    public void remove(Predicate<String> symbols) {
+        int size = Math.min(symbolRegistry.size(), latest.capacity());
+        for (int id = 0; id < size; id++) {
+            String symbol = symbolRegistry.symbolOf(id);
+            if (symbol != null && symbols.test(symbol)) {
+                latest.remove(id);
+                dirty = true;
+            }
+        }
+    }
+
+    // The only regular builder, so the consumer lanes never pay for a rebuild; spring.task.scheduling.pool.size
+    // gives it a thread of its own, so a blocked producer or a slow rebuild never delays the other jobs
+    @Scheduled(fixedDelayString = "${app.snapshot.min-rebuild-interval-ms:100}")
+    void publishPending() {
+        if (dirty) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        synchronized (buildLock) {
+            dirty = false;
+            current = build(collect());
+        }
+    }
+
+    // Lock-free reads; a slot updated meanwhile is either included or raised dirty again for the next build
+    private List<MarketData> collect() {
+        List<MarketData> data = new ArrayList<>();
+        Tick scratch = new Tick();
+        int size = Math.min(symbolRegistry.size(), latest.capacity());
+        for (int id = 0; id < size; id++) {
+            if (latest.get(id, scratch)) {
+                scratch.setSymbol(symbolRegistry.symbolOf(id));
+                data.add(scratch.toMarketData());
+            }
+        }
+        return data;
+    }
+
+    private MarketSnapshot build(List<MarketData> data) {
+        Map<String, MarketData> bySymbol = new HashMap<>(data.size() * 2);
+        data.forEach(marketData -> bySymbol.put(marketData.getSymbol(), marketData));
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize market snapshot", e);
+            return current;
+        }
+        version++;
+        if (firstSnapshotUptimeMs < 0 && !data.isEmpty()) {
+            firstSnapshotUptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+            logger.info("First snapshot with values built {} ms after JVM start ({} symbols)",
+                    firstSnapshotUptimeMs, data.size());
+        }
+        return new MarketSnapshot(version, "\"" + epoch + "-" + version + "\"",
+                Collections.unmodifiableList(data), Collections.unmodifiableMap(bySymbol), body);
+    }
+}
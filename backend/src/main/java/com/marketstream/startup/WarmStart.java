@@ -0,0 +1,225 @@
+package com.marketstream.startup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketstream.codec.TickBinaryCodec;
+import com.marketstream.codec.TickDeserializer;
+import com.marketstream.journal.TickJournal;
+import com.marketstream.model.MarketData;
+import com.marketstream.model.Tick;
+import com.marketstream.service.MarketDataCache;
+import com.marketstream.snapshot.SnapshotEngine;
+import com.marketstream.stream.MarketDataStreamer;
+import com.marketstream.symbol.SymbolRegistry;
+import com.marketstream.websocket.EncodedTick;
+import com.marketstream.websocket.SessionDispatcher;
+import com.marketstream.websocket.TickEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restores the last value of every active symbol before the app takes traffic, so a restart does
+ * not serve an empty snapshot until each symbol ticks again. Values come from the tail of the tick
+ * journal and from the Redis copy the write-behind keeps under {@code market:data:*}; the newer
+ * one wins. The restored ticks then drive the encode and fan-out paths for a number of rounds so
+ * the first live ticks do not run interpreted.
+ * <p>
+ * Runs as a lifecycle phase ahead of the web server and the Kafka listener containers: nothing
+ * reads or writes the caches meanwhile, and readiness only flips once it is done.
+ */
+@Component
+public class WarmStart implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(WarmStart.class);
+    // Strictly before the web server (DEFAULT_PHASE - 2048; graceful shutdown is DEFAULT_PHASE - 1024)
+    // and the listener containers (DEFAULT_PHASE - 100)
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private TickJournal tickJournal;
+    @Autowired
+    private MarketDataCache cacheService;
+    @Autowired
+    private SnapshotEngine snapshotEngine;
+    @Autowired
+    private TickEncoder tickEncoder;
+    @Autowired
+    private SessionDispatcher sessionDispatcher;
+    @Autowired
+    private MarketDataStreamer marketDataStreamer;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${app.warm-start.enabled:true}")
+    private boolean enabled;
+    @Value("${app.warm-start.journal-lookback-ms:30000}")
+    private long journalLookbackMs;
+    @Value("${app.warm-start.redis:true}")
+    private boolean fromRedis;
+    @Value("${app.warm-start.batch-size:500}")
+    private int batchSize;
+    @Value("${app.warm-start.warm-up-iterations:20000}")
+    private int warmUpIterations;
+    @Value("${app.warm-start.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private volatile boolean running;
+    private volatile int restored;
+    private volatile long durationMs;
+
+    @Override
+    public void start() {
+        running = true;
+        Gauge.builder("marketstream.warmstart.restored", this, warmStart -> warmStart.restored)
+                .description("Symbols whose last value was restored at startup")
+                .register(meterRegistry);
+        Gauge.builder("marketstream.warmstart.duration", this, warmStart -> warmStart.durationMs / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        if (!enabled) {
+            logger.info("Warm start disabled; the snapshot stays empty until the first ticks arrive");
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Tick[] latest = new Tick[symbolRegistry.size()];
+        int fromJournal = 0;
+        int fromCache = 0;
+        // A source that fails only makes the start colder; it never keeps the app from starting
+        try {
+            fromJournal = readJournal(latest, deadline);
+        } catch (RuntimeException e) {
+            logger.warn("Warm start could not read the tick journal", e);
+        }
+        try {
+            fromCache = fromRedis ? readCache(latest, deadline) : 0;
+        } catch (RuntimeException e) {
+            logger.warn("Warm start could not read the Redis cache", e);
+        }
+        List<Tick> ticks = new ArrayList<>();
+        for (Tick tick : latest) {
+            if (tick != null) {
+                ticks.add(tick);
+            }
+        }
+        restored = cacheService.restore(ticks);
+        snapshotEngine.restore(ticks);
+        long restoredMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        warmUp(ticks);
+        durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Warm start restored {} of {} active symbols ({} from the journal, {} newer in Redis) in {} ms; "
+                        + "warm-up done after {} ms", ticks.size(), symbolRegistry.activeCount(), fromJournal,
+                fromCache, restoredMs, durationMs);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // Last journaled tick per active symbol within the lookback; records come back in append order,
+    // so the last one per symbol is the value the cache held
+    private int readJournal(Tick[] latest, long deadline) {
+        if (!tickJournal.isEnabled() || journalLookbackMs <= 0) {
+            return 0;
+        }
+        long to = System.currentTimeMillis() * 1_000_000L;
+        long from = to - TimeUnit.MILLISECONDS.toNanos(journalLookbackMs);
+        int[] count = new int[1];
+        boolean complete = tickJournal.read(from, to, null, tick -> {
+            int id = symbolRegistry.idOf(tick.getSymbol());
+            if (id != SymbolRegistry.UNKNOWN && id < latest.length && symbolRegistry.isActive(id)) {
+                if (latest[id] == null) {
+                    latest[id] = new Tick();
+                    count[0]++;
+                }
+                latest[id].copyFrom(tick);
+                latest[id].setSymbolId(id);
+            }
+            return System.nanoTime() - deadline < 0;
+        });
+        if (!complete) {
+            logger.warn("Warm start stopped reading the journal at the {} ms timeout", timeoutMs);
+        }
+        return count[0];
+    }
+
+    // One MGET per batch of active symbols; Redis values replace journal ones only when newer
+    private int readCache(Tick[] latest, long deadline) {
+        List<String> symbols = symbolRegistry.activeSymbols();
+        int replaced = 0;
+        for (int offset = 0; offset < symbols.size(); offset += batchSize) {
+            if (System.nanoTime() - deadline >= 0) {
+                logger.warn("Warm start stopped reading Redis at the {} ms timeout", timeoutMs);
+                break;
+            }
+            List<String> batch = symbols.subList(offset, Math.min(offset + batchSize, symbols.size()));
+            for (MarketData data : cacheService.getMarketData(batch)) {
+                Tick tick = Tick.fromMarketData(data);
+                int id = symbolRegistry.idOf(tick.getSymbol());
+                if (id == SymbolRegistry.UNKNOWN || id >= latest.length) {
+                    continue;
+                }
+                if (latest[id] == null || latest[id].getTimestampNanos() < tick.getTimestampNanos()) {
+                    tick.setSymbolId(id);
+                    latest[id] = tick;
+                    replaced++;
+                }
+            }
+        }
+        return replaced;
+    }
+
+    /**
+     * Runs the consumer's per-tick work on the restored values: decoding both wire formats,
+     * full and delta encoding, and the WebSocket and stream fan-out, which have no subscribers yet.
+     * Encoding also leaves each symbol's delta base at its restored value, the same value the
+     * cache hands to delta sessions as their first snapshot.
+     */
+    private void warmUp(List<Tick> ticks) {
+        if (warmUpIterations <= 0) {
+            return;
+        }
+        TickDeserializer deserializer = new TickDeserializer(objectMapper, symbolRegistry);
+        Tick scratch = new Tick("WARMUP", 2);
+        scratch.setPrice(10_000);
+        try {
+            for (int i = 0; i < warmUpIterations; i++) {
+                Tick tick = ticks.isEmpty() ? scratch : ticks.get(i % ticks.size());
+                Objects.requireNonNull(deserializer.deserialize(null, TickBinaryCodec.encode(tick)));
+                Objects.requireNonNull(deserializer.deserialize(null, objectMapper.writeValueAsBytes(tick.toMarketData())));
+                if (tick != scratch) {
+                    EncodedTick encoded = tickEncoder.encode(tick, true);
+                    sessionDispatcher.publish(encoded);
+                    marketDataStreamer.publish(encoded);
+                }
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Only a missed optimization; live ticks take the same paths anyway
+            logger.warn("Warm-up stopped early", e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.marketstream.stream;
+
+import com.marketstream.websocket.EncodedTick;
+import com.marketstream.websocket.FieldMask;
+import com.marketstream.websocket.PayloadKind;
+import com.marketstream.websocket.TickEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Server-Sent Events and NDJSON streams of market data for clients that do not want STOMP framing.
+ * Every open stream is one virtual thread (see {@code WebConfig}) that parks until one of its
+ * symbols ticks and then writes with plain blocking I/O. Demand comes from the socket: while a
+ * client reads slowly its writes block, and newer ticks overwrite older unwritten ones in the
+ * stream's per-symbol slots, so a slow client holds one slot per symbol and never backs up the
+ * consumer. Payloads are the frame bodies the consumer already encoded for WebSocket sessions.
+ */
+@Component
+public class MarketDataStreamer {
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataStreamer.class);
+    // Payloads written between flushes, so one busy symbol set cannot starve the heartbeat check
+    private static final int MAX_WRITES_PER_FLUSH = 256;
+    // Request attribute that lifts the async timeout for a stream response (see WebConfig)
+    public static final String UNBOUNDED_REQUEST = MarketDataStreamer.class.getName() + ".UNBOUNDED";
+
+    @Autowired
+    private TickEncoder tickEncoder;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${app.stream.enabled:true}")
+    private boolean enabled;
+    @Value("${app.stream.max-connections:10000}")
+    private int maxConnections;
+    @Value("${app.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    private final AtomicLong nextId = new AtomicLong();
+    // Slots reserved by open() and released when the stream ends, so concurrent opens cannot overshoot
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Map<Long, StreamSubscriber> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Set<StreamSubscriber>> symbolIndex = new ConcurrentHashMap<>();
+    private final Set<StreamSubscriber> wildcardSubscribers = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+    private Counter sentCounter;
+    private Counter conflatedCounter;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("marketstream.stream.connections", subscribers, Map::size)
+                .description("Open SSE and NDJSON market data streams")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("marketstream.stream.sent").register(meterRegistry);
+        conflatedCounter = Counter.builder("marketstream.stream.conflated").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        subscribers.values().forEach(subscriber -> LockSupport.unpark(subscriber.writer));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void publish(EncodedTick tick) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<StreamSubscriber> subscribed = symbolIndex.get(tick.getSymbol());
+        if (subscribed != null) {
+            subscribed.forEach(subscriber -> offer(subscriber, tick));
+        }
+        wildcardSubscribers.forEach(subscriber -> offer(subscriber, tick));
+    }
+
+    private void offer(StreamSubscriber subscriber, EncodedTick tick) {
+        if (subscriber.offer(tick)) {
+            subscriber.conflated.increment();
+            conflatedCounter.increment();
+        }
+    }
+
+    /**
+     * A response body that streams the given symbols (all of them when null or empty) until the
+     * client disconnects. Throws IllegalArgumentException for an unknown field name and
+     * IllegalStateException when streaming is disabled or {@code app.stream.max-connections} is reached.
+     */
+    public StreamingResponseBody open(Collection<String> symbols, List<String> fields, StreamFormat format) {
+        if (!enabled || !running) {
+            throw new IllegalStateException("Market data streaming is disabled");
+        }
+        Set<String> normalized = normalize(symbols);
+        int fieldMask = FieldMask.parse(fields);
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new IllegalStateException("Already streaming to " + maxConnections + " clients");
+        }
+        StreamSubscriber subscriber = new StreamSubscriber(nextId.incrementAndGet(), normalized, fieldMask, format);
+        return out -> stream(subscriber, out);
+    }
+
+    // Runs on the stream's own virtual thread; registered only here, and the slot open() reserved is freed on exit
+    private void stream(StreamSubscriber subscriber, OutputStream out) throws IOException {
+        subscriber.writer = Thread.currentThread();
+        register(subscriber);
+        long heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(heartbeatMs, 100));
+        try {
+            // Headers and a first heartbeat go out right away, so the client knows the stream is open
+            out.write(subscriber.format.heartbeat());
+            out.flush();
+            long nextHeartbeat = System.nanoTime() + heartbeatNanos;
+            while (running) {
+                long now;
+                if (drain(subscriber, out) > 0) {
+                    out.flush();
+                    nextHeartbeat = System.nanoTime() + heartbeatNanos;
+                } else if ((now = System.nanoTime()) - nextHeartbeat >= 0) {
+                    out.write(subscriber.format.heartbeat());
+                    out.flush();
+                    nextHeartbeat = now + heartbeatNanos;
+                } else if (subscriber.dirtySymbols.isEmpty()) {
+                    LockSupport.parkNanos(this, nextHeartbeat - now);
+                }
+            }
+        } catch (IOException e) {
+            // The client went away; that is how every stream ends
+            logger.debug("Stream {} closed after {} messages: {}", subscriber.id, subscriber.sent.sum(),
+                    e.getMessage());
+        } finally {
+            unregister(subscriber);
+            connections.decrementAndGet();
+        }
+    }
+
+    private int drain(StreamSubscriber subscriber, OutputStream out) throws IOException {
+        StreamFormat format = subscriber.format;
+        int written = 0;
+        String symbol;
+        while (written < MAX_WRITES_PER_FLUSH && (symbol = subscriber.dirtySymbols.poll()) != null) {
+            EncodedTick tick = subscriber.pending.remove(symbol);
+            if (tick == null) {
+                continue;
+            }
+            out.write(format.prefix());
+            out.write(tickEncoder.payloadFor(tick, PayloadKind.FULL, subscriber.fieldMask));
+            out.write(format.suffix());
+            written++;
+        }
+        subscriber.sent.add(written);
+        sentCounter.increment(written);
+        return written;
+    }
+
+    private void register(StreamSubscriber subscriber) {
+        subscribers.put(subscriber.id, subscriber);
+        if (subscriber.symbols == null) {
+            wildcardSubscribers.add(subscriber);
+            return;
+        }
+        for (String symbol : subscriber.symbols) {
+            symbolIndex.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+    }
+
+    private void unregister(StreamSubscriber subscriber) {
+        subscribers.remove(subscriber.id);
+        if (subscriber.symbols == null) {
+            wildcardSubscribers.remove(subscriber);
+            return;
+        }
+        for (String symbol : subscriber.symbols) {
+            symbolIndex.computeIfPresent(symbol, (key, indexed) -> {
+                indexed.remove(subscriber);
+                return indexed.isEmpty() ? null : indexed;
+            });
+        }
+    }
+
+    private static Set<String> normalize(Collection<String> symbols) {
+        if (symbols == null || symbols.isEmpty()) {
+            return null;
+        }
+        Set<String> normalized = new HashSet<>();
+        symbols.forEach(symbol -> normalized.add(symbol.trim().toUpperCase()));
+        return Set.copyOf(normalized);
+    }
+}
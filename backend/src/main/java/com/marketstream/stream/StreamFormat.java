@@ -0,0 +1,52 @@
+package com.marketstream.stream;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Framing around each MarketData JSON payload; payloads are single-line JSON, so neither format needs escaping
+public enum StreamFormat {
+    SSE(MediaType.TEXT_EVENT_STREAM, "data: ", "\n\n", ":\n\n"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "", "\n", "\n");
+
+    private final MediaType mediaType;
+    private final byte[] prefix;
+    private final byte[] suffix;
+    // Written while idle so proxies keep the connection open and a gone client is noticed
+    private final byte[] heartbeat;
+
+    StreamFormat(MediaType mediaType, String prefix, String suffix, String heartbeat) {
+        this.mediaType = mediaType;
+        this.prefix = prefix.getBytes(StandardCharsets.US_ASCII);
+        this.suffix = suffix.getBytes(StandardCharsets.US_ASCII);
+        this.heartbeat = heartbeat.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // An explicit format parameter wins; otherwise NDJSON only when the client accepts it, SSE by default
+    public static StreamFormat negotiate(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        }
+        if (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+            return NDJSON;
+        }
+        return SSE;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    byte[] prefix() {
+        return prefix;
+    }
+
+    byte[] suffix() {
+        return suffix;
+    }
+
+    byte[] heartbeat() {
+        return heartbeat;
+    }
+}
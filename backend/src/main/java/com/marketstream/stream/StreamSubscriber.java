@@ -0,0 +1,42 @@
+package com.marketstream.stream;
+
+import com.marketstream.websocket.EncodedTick;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// One open stream: latest-value slots per symbol, as for STOMP sessions, drained by the stream's own thread
+class StreamSubscriber {
+    final long id;
+    // Null means every symbol
+    final Set<String> symbols;
+    final int fieldMask;
+    final StreamFormat format;
+    final Map<String, EncodedTick> pending = new ConcurrentHashMap<>();
+    final ConcurrentLinkedQueue<String> dirtySymbols = new ConcurrentLinkedQueue<>();
+    final LongAdder sent = new LongAdder();
+    final LongAdder conflated = new LongAdder();
+    volatile Thread writer;
+
+    StreamSubscriber(long id, Set<String> symbols, int fieldMask, StreamFormat format) {
+        this.id = id;
+        this.symbols = symbols;
+        this.fieldMask = fieldMask;
+        this.format = format;
+    }
+
+    // Returns true if the tick replaced one the stream had not written yet
+    boolean offer(EncodedTick tick) {
+        String symbol = tick.getSymbol();
+        if (pending.put(symbol, tick) == null) {
+            dirtySymbols.offer(symbol);
+            LockSupport.unpark(writer);
+            return false;
+        }
+        return true;
+    }
+}
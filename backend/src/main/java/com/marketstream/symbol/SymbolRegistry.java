@@ -0,0 +1,322 @@
+package com.marketstream.symbol;
+
+import com.marketstream.model.Tick;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The symbol universe shared by every component. Symbols are interned to dense int ids so
+ * hot-path structures (off-heap store, write-behind flags, delta state, snapshot slots) can be
+ * plain arrays indexed by id. Ids are never reused: removing a symbol only marks it inactive, so
+ * state still keyed by its id can never be mistaken for another symbol, and adding it back
+ * reactivates the same id. Ids are capped at {@code app.cache.off-heap.capacity}, the size of the
+ * id-indexed stores; symbols first seen past the cap are rejected as {@link #UNKNOWN} and counted.
+ * <p>
+ * The universe is loaded at startup from {@code app.symbols.file} (one {@code SYMBOL,basePrice[,group]}
+ * per line), optionally padded with synthetic symbols for load testing, and can be changed at
+ * runtime through {@link #add} and {@link #remove}.
+ */
+@Component
+public class SymbolRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SymbolRegistry.class);
+    public static final int UNKNOWN = -1;
+    // Group of symbols the universe file did not assign one; groups label per-group metrics
+    public static final String DEFAULT_GROUP = "other";
+    public static final String SYNTHETIC_GROUP = "synthetic";
+    private static final BigDecimal DEFAULT_BASE_PRICE = new BigDecimal("100.00");
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${app.symbols.file:classpath:symbols.csv}")
+    private String universeFile;
+    // Extra SYM000000-style symbols on top of the file, for running large universes
+    @Value("${app.symbols.synthetic-count:0}")
+    private int syntheticCount;
+    @Value("${app.cache.off-heap.capacity:131072}")
+    private int capacity;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // Open-addressed id table keyed by the symbols' ASCII bytes, so decoders resolve an id from the
+    // wire without building or hashing a String; written under the lock, read without it
+    private volatile int[] byteIndex = emptyIndex(128);
+    private volatile String[] symbols = new String[64];
+    private volatile BigDecimal[] basePrices = new BigDecimal[64];
+    private volatile boolean[] active = new boolean[64];
+    private volatile String[] groups = new String[64];
+    private volatile int size;
+    // Written after every add/remove and read before active/basePrices, to publish their element writes
+    private volatile int modCount;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void load() {
+        rejectedCounter = Counter.builder("marketstream.symbols.rejected")
+                .description("Lookups of new symbols refused because the universe reached its id capacity")
+                .register(meterRegistry);
+        Resource resource = resourceLoader.getResource(universeFile);
+        if (resource.exists()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] columns = line.split(",");
+                    add(columns[0], columns.length > 1 ? new BigDecimal(columns[1].trim()) : DEFAULT_BASE_PRICE,
+                            columns.length > 2 ? columns[2].trim() : null);
+                }
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Failed to load symbol universe from " + universeFile, e);
+            }
+        } else {
+            logger.warn("Symbol universe file {} not found; starting with an empty universe", universeFile);
+        }
+        for (int i = 0; i < syntheticCount; i++) {
+            add(String.format("SYM%06d", i), DEFAULT_BASE_PRICE, SYNTHETIC_GROUP);
+        }
+        logger.info("Loaded {} symbols from {} ({} synthetic)", activeCount(), universeFile, syntheticCount);
+    }
+
+    // Adds or reactivates a symbol; an existing symbol keeps its id and takes the new base price
+    public synchronized int add(String symbol, BigDecimal basePrice) {
+        return add(symbol, basePrice, null);
+    }
+
+    // A null group keeps the symbol's current one; throws IllegalStateException when the universe is full
+    public synchronized int add(String symbol, BigDecimal basePrice, String group) {
+        String normalized = symbol.trim().toUpperCase();
+        int id = intern(normalized);
+        if (id == UNKNOWN) {
+            throw new IllegalStateException("Symbol universe is full at " + capacity + " symbols; cannot add " + normalized);
+        }
+        basePrices[id] = basePrice;
+        if (group != null) {
+            groups[id] = group;
+        }
+        active[id] = true;
+        modCount++;
+        return id;
+    }
+
+    public synchronized boolean remove(String symbol) {
+        int id = idOf(symbol);
+        if (id == UNKNOWN || !active[id]) {
+            return false;
+        }
+        active[id] = false;
+        modCount++;
+        return true;
+    }
+
+    // Also used for symbols seen on the feed but not in the universe; they get an id but stay inactive.
+    // Symbols are trimmed and upper-cased as add() does, so "aapl" on the wire is AAPL. Returns UNKNOWN
+    // once capacity ids are handed out, without locking, so junk on the feed stays cheap
+    public int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        String normalized = symbol.trim().toUpperCase();
+        if (!normalized.equals(symbol)) {
+            symbol = normalized;
+            id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+        }
+        if (size >= capacity) {
+            rejectedCounter.increment();
+            return UNKNOWN;
+        }
+        synchronized (this) {
+            id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            if (next >= capacity) {
+                rejectedCounter.increment();
+                return UNKNOWN;
+            }
+            if (next == symbols.length) {
+                int length = symbols.length * 2;
+                basePrices = Arrays.copyOf(basePrices, length);
+                active = Arrays.copyOf(active, length);
+                groups = Arrays.copyOf(groups, length);
+                symbols = Arrays.copyOf(symbols, length);
+            }
+            // Written before the id is published so readers that see the id can resolve it
+            symbols[next] = symbol;
+            size = next + 1;
+            indexBytes(symbol, next);
+            ids.put(symbol, next);
+            return next;
+        }
+    }
+
+    // Resolves the tick's id once and caches it on the tick, so later stages skip the String lookup;
+    // binary ticks arrive with it already set by the decoder. The tick takes the registry's spelling
+    // of the symbol. UNKNOWN for a new symbol past the capacity
+    public int resolve(Tick tick) {
+        int id = tick.getSymbolId();
+        if (id == UNKNOWN) {
+            id = intern(tick.getSymbol());
+            if (id != UNKNOWN && tick.getSymbol() != symbols[id]) {
+                tick.setSymbol(symbols[id]);
+            }
+            tick.setSymbolId(id);
+        }
+        return id;
+    }
+
+    // The id of the US-ASCII symbol in bytes[offset, offset + length), UNKNOWN when it was never
+    // interned in exactly that spelling; allocation- and lock-free
+    public int idOf(byte[] bytes, int offset, int length) {
+        int[] index = byteIndex;
+        String[] current = symbols;
+        int mask = index.length - 1;
+        for (int slot = hash(bytes, offset, length) & mask; ; slot = (slot + 1) & mask) {
+            int id = index[slot];
+            if (id == UNKNOWN || id >= current.length) {
+                return UNKNOWN;
+            }
+            if (sameSymbol(current[id], bytes, offset, length)) {
+                return id;
+            }
+        }
+    }
+
+    // Under the lock. Slots only ever go from empty to an id, so readers racing an insert at worst
+    // miss and fall back to the String path; the table doubles at half load so probes stay short
+    private void indexBytes(String symbol, int id) {
+        int[] index = byteIndex;
+        if ((id + 1) * 2 > index.length) {
+            index = emptyIndex(index.length * 2);
+            for (int existing = 0; existing < id; existing++) {
+                insert(index, symbols[existing], existing);
+            }
+            insert(index, symbol, id);
+            byteIndex = index;
+        } else {
+            insert(index, symbol, id);
+        }
+    }
+
+    private static void insert(int[] index, String symbol, int id) {
+        int mask = index.length - 1;
+        int slot = symbol.hashCode() & mask;
+        while (index[slot] != UNKNOWN) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = id;
+    }
+
+    // Same value as String.hashCode for ASCII symbols
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static boolean sameSymbol(String symbol, byte[] bytes, int offset, int length) {
+        if (symbol == null || symbol.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] emptyIndex(int length) {
+        int[] index = new int[length];
+        Arrays.fill(index, UNKNOWN);
+        return index;
+    }
+
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : UNKNOWN;
+    }
+
+    public String symbolOf(int id) {
+        String[] current = symbols;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    public boolean isActive(int id) {
+        int ignored = modCount;
+        boolean[] current = active;
+        return id >= 0 && id < current.length && current[id];
+    }
+
+    public BigDecimal basePriceOf(int id) {
+        int ignored = modCount;
+        BigDecimal[] current = basePrices;
+        BigDecimal basePrice = id >= 0 && id < current.length ? current[id] : null;
+        return basePrice != null ? basePrice : DEFAULT_BASE_PRICE;
+    }
+
+    public String groupOf(int id) {
+        int ignored = modCount;
+        String[] current = groups;
+        String group = id >= 0 && id < current.length ? current[id] : null;
+        return group != null ? group : DEFAULT_GROUP;
+    }
+
+    public List<String> activeSymbols() {
+        List<String> result = new ArrayList<>();
+        int count = size;
+        for (int id = 0; id < count; id++) {
+            if (isActive(id)) {
+                result.add(symbols[id]);
+            }
+        }
+        return result;
+    }
+
+    public int activeCount() {
+        int count = 0;
+        for (int id = 0; id < size; id++) {
+            if (isActive(id)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Number of ids handed out, active or not; ids run from 0 to size() - 1
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,11 @@
+package com.marketstream.transport;
+
+import com.marketstream.model.BookUpdateBatch;
+
+import java.util.concurrent.CompletableFuture;
+
+// Producer side of the order-book feed, following app.transport.type like TickPublisher
+public interface BookUpdatePublisher {
+    // The batch is serialized or applied before this returns, so callers may clear and refill it right away
+    CompletableFuture<?> publish(BookUpdateBatch batch);
+}
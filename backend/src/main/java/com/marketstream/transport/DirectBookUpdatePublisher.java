@@ -0,0 +1,25 @@
+package com.marketstream.transport;
+
+import com.marketstream.book.OrderBookEngine;
+import com.marketstream.model.BookUpdateBatch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+// With the in-process ring transport there is no broker; batches are applied on the publishing thread
+@Component
+@ConditionalOnProperty(name = "app.transport.type", havingValue = "ring")
+public class DirectBookUpdatePublisher implements BookUpdatePublisher {
+    private static final CompletableFuture<Void> APPLIED = CompletableFuture.completedFuture(null);
+
+    @Autowired
+    private OrderBookEngine orderBookEngine;
+
+    @Override
+    public CompletableFuture<?> publish(BookUpdateBatch batch) {
+        orderBookEngine.apply(batch);
+        return APPLIED;
+    }
+}
@@ -0,0 +1,44 @@
+package com.marketstream.transport;
+
+import com.marketstream.book.OrderBookEngine;
+import com.marketstream.codec.BookUpdateCodec;
+import com.marketstream.model.BookUpdateBatch;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.transport.type", havingValue = "kafka", matchIfMissing = true)
+public class KafkaBookUpdateListener {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaBookUpdateListener.class);
+    @Autowired
+    private OrderBookEngine orderBookEngine;
+
+    // Each container thread owns whole partitions, so every book is updated by one thread, in record order
+    @KafkaListener(id = "order-book-listener",
+            topics = "${app.kafka.topic.order-book:order-book-topic}", groupId = "#{@clusterNode.consumerGroup}",
+            containerFactory = "orderBookListenerContainerFactory",
+            autoStartup = "${app.order-book.enabled:true}")
+    public void consumeBookUpdates(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        // One batch decodes the whole poll; its arrays are reused record to record
+        BookUpdateBatch batch = new BookUpdateBatch();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                BookUpdateCodec.decode(record.value(), batch);
+                orderBookEngine.apply(batch);
+            } catch (RuntimeException e) {
+                // A bad record is skipped; the book catches up with the next updates or CLEAR for its levels
+                logger.error("Failed to apply order book record at partition: {} offset: {}",
+                        record.partition(), record.offset(), e);
+            }
+        }
+        acknowledgment.acknowledge();
+    }
+}
@@ -0,0 +1,26 @@
+package com.marketstream.transport;
+
+import com.marketstream.codec.BookUpdateCodec;
+import com.marketstream.model.BookUpdateBatch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@ConditionalOnProperty(name = "app.transport.type", havingValue = "kafka", matchIfMissing = true)
+public class KafkaBookUpdatePublisher implements BookUpdatePublisher {
+    @Autowired
+    private KafkaTemplate<String, byte[]> orderBookKafkaTemplate;
+    @Value("${app.kafka.topic.order-book:order-book-topic}")
+    private String orderBookTopic;
+
+    // Keyed by symbol, so a book's updates stay on one partition, in order
+    @Override
+    public CompletableFuture<?> publish(BookUpdateBatch batch) {
+        return orderBookKafkaTemplate.send(orderBookTopic, batch.getSymbol(), BookUpdateCodec.encode(batch));
+    }
+}
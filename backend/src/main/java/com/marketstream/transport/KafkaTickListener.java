@@ -0,0 +1,76 @@
+package com.marketstream.transport;
+
+import com.marketstream.model.Tick;
+import com.marketstream.service.MarketDataConsumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.transport.type", havingValue = "kafka", matchIfMissing = true)
+public class KafkaTickListener {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaTickListener.class);
+    @Autowired
+    private MarketDataConsumer consumer;
+
+    @KafkaListener(id = "market-data-listener",
+            topics = "${app.kafka.topic.market-data}", groupId = "#{@clusterNode.consumerGroup}",
+            autoStartup = "#{!${app.kafka.consumer.batch-listener:false}}")
+    public void consumeMarketData(@Payload Tick tick,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(KafkaHeaders.RECEIVED_KEY) String key,
+            Acknowledgment acknowledgment) {
+        // Undecodable records never reach here: ErrorHandlingDeserializer routes them to the
+        // container error handler, which logs and commits past them
+        try {
+            consumer.consume(tick);
+            logger.debug("Processed market data for symbol: {} from partition: {} at offset: {}",
+                    key, partition, offset);
+            acknowledgment.acknowledge();
+        } catch (Exception e) {
+            logger.error("Error processing market data message: {}", tick, e);
+            // Don't acknowledge on processing error to retry
+        }
+    }
+
+    @KafkaListener(id = "market-data-batch-listener",
+            topics = "${app.kafka.topic.market-data}", groupId = "#{@clusterNode.consumerGroup}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${app.kafka.consumer.batch-listener:false}")
+    public void consumeMarketDataBatch(List<ConsumerRecord<String, Tick>> records,
+            Acknowledgment acknowledgment) {
+        List<Tick> ticks = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Tick> record : records) {
+            Tick tick = record.value();
+            if (tick == null) {
+                // Poison records are skipped; the batch commit moves past them
+                logger.error("Failed to deserialize market data message at partition: {} offset: {}",
+                        record.partition(), record.offset());
+                continue;
+            }
+            ticks.add(tick);
+        }
+        try {
+            // Blocks until every lane is done, so the batch is only acknowledged once fully dispatched
+            int dispatched = consumer.consumeBatch(ticks);
+            logger.debug("Processed batch of {} records, dispatched {} ticks", records.size(), dispatched);
+            acknowledgment.acknowledge();
+        } catch (Exception e) {
+            logger.error("Error processing market data batch of {} records", records.size(), e);
+            // Don't acknowledge on processing error to retry
+        }
+    }
+}
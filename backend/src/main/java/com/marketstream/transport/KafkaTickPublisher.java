@@ -0,0 +1,30 @@
+package com.marketstream.transport;
+
+import com.marketstream.model.Tick;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@ConditionalOnProperty(name = "app.transport.type", havingValue = "kafka", matchIfMissing = true)
+public class KafkaTickPublisher implements TickPublisher {
+    @Autowired
+    private KafkaTemplate<String, Tick> kafkaTemplate;
+    @Value("${app.kafka.topic.market-data}")
+    private String marketDataTopic;
+
+    // Keyed by symbol so each symbol stays on one partition, in order
+    @Override
+    public CompletableFuture<?> publish(Tick tick) {
+        return kafkaTemplate.send(marketDataTopic, tick.getSymbol(), tick);
+    }
+
+    @Override
+    public String name() {
+        return "kafka";
+    }
+}
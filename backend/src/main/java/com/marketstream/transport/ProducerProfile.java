@@ -0,0 +1,58 @@
+package com.marketstream.transport;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Named Kafka producer tradeoffs; the market data stream picks one with app.kafka.producer.profile
+public enum ProducerProfile {
+    // Leader-only acks and no batching delay: lowest publish latency, may lose the last ticks on leader failover
+    LOWEST_LATENCY("1", 0, 16_384, "none", false),
+    // All replicas ack, minimal batching delay; the settings the producer always had
+    BALANCED("all", 1, 16_384, "none", true),
+    // Large, compressed batches: fewest requests and bytes per tick at the cost of up to linger.ms delay
+    MAX_THROUGHPUT("all", 20, 262_144, "zstd", true);
+
+    private final String acks;
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compression;
+    private final boolean idempotence;
+
+    ProducerProfile(String acks, int lingerMs, int batchSize, String compression, boolean idempotence) {
+        this.acks = acks;
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compression = compression;
+        this.idempotence = idempotence;
+    }
+
+    // Accepts "lowest-latency" as well as "LOWEST_LATENCY"
+    public static ProducerProfile fromConfig(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    public String configName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    // Producer settings for this profile, without bootstrap servers or serializers
+    public Map<String, Object> producerProps() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        // Set explicitly: the client defaults to idempotence, which is rejected with acks=1
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        props.put(ProducerConfig.RETRIES_CONFIG, 3);
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 33_554_432L);
+        return props;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
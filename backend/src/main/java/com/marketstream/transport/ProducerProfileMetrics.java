@@ -0,0 +1,54 @@
+package com.marketstream.transport;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Headline producer metrics per profile, derived from the Kafka client's own producer-metrics group
+public final class ProducerProfileMetrics {
+    private static final String GROUP = "producer-metrics";
+
+    private ProducerProfileMetrics() {
+    }
+
+    public static void bind(KafkaTemplate<?, ?> template, ProducerProfile profile, MeterRegistry meterRegistry) {
+        Tags tags = Tags.of("profile", profile.configName());
+        gauge(meterRegistry, "marketstream.kafka.producer.send_rate", "Records sent per second", tags,
+                () -> metric(template, "record-send-rate"));
+        gauge(meterRegistry, "marketstream.kafka.producer.batch_fill_ratio",
+                "Average batch size as a fraction of batch.size", tags,
+                () -> metric(template, "batch-size-avg") / profile.getBatchSize());
+        gauge(meterRegistry, "marketstream.kafka.producer.compression_ratio",
+                "Compressed to uncompressed batch size; 1 without compression", tags,
+                () -> metric(template, "compression-rate-avg"));
+        gauge(meterRegistry, "marketstream.kafka.producer.request_latency_ms",
+                "Average produce request latency", tags,
+                () -> metric(template, "request-latency-avg"));
+    }
+
+    private static void gauge(MeterRegistry meterRegistry, String name, String description, Tags tags,
+            Supplier<Number> value) {
+        Gauge.builder(name, value)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    // NaN until the producer has sent something, which Prometheus renders as a gap rather than a false zero
+    private static double metric(KafkaTemplate<?, ?> template, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : template.metrics().entrySet()) {
+            MetricName metricName = entry.getKey();
+            if (metricName.name().equals(name) && metricName.group().equals(GROUP)) {
+                Object value = entry.getValue().metricValue();
+                return value instanceof Number number ? number.doubleValue() : Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,200 @@
+package com.marketstream.transport;
+
+import com.marketstream.latency.LatencyClock;
+import com.marketstream.model.Tick;
+import com.marketstream.service.MarketDataConsumer;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process transport for single-node deployments: producers write straight into a
+ * pre-allocated ring of ticks and reader threads hand them to {@link MarketDataConsumer}, with no
+ * broker, no serialization and no allocation per tick.
+ * <p>
+ * Disruptor-style layout. Publishers claim a sequence from a shared cursor, copy the tick into the
+ * slot and mark the slot published with its sequence. Every reader walks every slot but only
+ * handles the symbols of its own stripe, so each symbol is dispatched by exactly one thread, in
+ * publish order, and readers never contend with each other. A slot is reused only once all
+ * readers moved past it; until then publishers wait, which is the transport's backpressure.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transport.type", havingValue = "ring")
+public class RingBufferTransport implements TickPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(RingBufferTransport.class);
+    private static final CompletableFuture<Void> ACCEPTED = CompletableFuture.completedFuture(null);
+    private static final int SPIN_TRIES = 1_000;
+    private static final int YIELD_TRIES = 100;
+    private static final int MAX_TRIES = SPIN_TRIES + YIELD_TRIES;
+    private static final long IDLE_PARK_NANOS = 50_000L;
+
+    @Autowired
+    private MarketDataConsumer consumer;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${app.transport.ring.size:65536}")
+    private int requestedSize;
+    @Value("${app.transport.ring.readers:4}")
+    private int readerCount;
+
+    private Tick[] slots;
+    // Sequence last published into each slot; a reader waits for its expected sequence to show up
+    private AtomicLongArray published;
+    private int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    // Last sequence each reader finished with; the minimum gates how far publishers may wrap
+    private AtomicLong[] readerSequences;
+    private volatile long gatingCache = -1;
+    private final List<Thread> readers = new ArrayList<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        int size = Integer.highestOneBit(Math.max(2, requestedSize - 1)) << 1;
+        slots = new Tick[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Tick();
+        }
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        mask = size - 1;
+        int count = Math.max(1, readerCount);
+        readerSequences = new AtomicLong[count];
+        running = true;
+        for (int index = 0; index < count; index++) {
+            readerSequences[index] = new AtomicLong(-1);
+            int stripe = index;
+            Thread reader = new Thread(() -> read(stripe, count), "ring-reader-" + index);
+            reader.setDaemon(true);
+            readers.add(reader);
+        }
+        readers.forEach(Thread::start);
+        Gauge.builder("marketstream.transport.ring.backlog", this, RingBufferTransport::backlog)
+                .description("Published ticks not yet handled by the slowest ring reader")
+                .register(meterRegistry);
+        logger.info("In-process ring transport: {} slots, {} readers", size, count);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        readers.forEach(LockSupport::unpark);
+    }
+
+    @Override
+    public CompletableFuture<?> publish(Tick tick) {
+        // Resolved here so readers route by id without touching the symbol string
+        symbolRegistry.resolve(tick);
+        long sequence = cursor.incrementAndGet();
+        awaitCapacity(sequence);
+        int index = (int) (sequence & mask);
+        slots[index].copyFrom(tick);
+        published.setRelease(index, sequence);
+        return ACCEPTED;
+    }
+
+    @Override
+    public String name() {
+        return "ring";
+    }
+
+    public long backlog() {
+        return cursor.get() - minimumReaderSequence();
+    }
+
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint <= gatingCache) {
+            return;
+        }
+        int tries = 0;
+        long gating;
+        while (wrapPoint > (gating = minimumReaderSequence())) {
+            idle(tries);
+            tries = Math.min(tries + 1, MAX_TRIES);
+            if (!running) {
+                throw new IllegalStateException("Ring transport is shut down");
+            }
+        }
+        gatingCache = gating;
+    }
+
+    private long minimumReaderSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (AtomicLong sequence : readerSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    private void read(int stripe, int stripes) {
+        AtomicLong readerSequence = readerSequences[stripe];
+        List<Tick> batch = new ArrayList<>();
+        long next = readerSequence.get() + 1;
+        int idleTries = 0;
+        while (running) {
+            long available = next - 1;
+            // Publishers finish out of order, so stop at the first slot not yet published
+            while (available - next + 1 < slots.length
+                    && published.getAcquire((int) ((available + 1) & mask)) == available + 1) {
+                available++;
+            }
+            if (available < next) {
+                idle(idleTries);
+                idleTries = Math.min(idleTries + 1, MAX_TRIES);
+                continue;
+            }
+            idleTries = 0;
+            batch.clear();
+            long received = LatencyClock.now();
+            for (long sequence = next; sequence <= available; sequence++) {
+                Tick tick = slots[(int) (sequence & mask)];
+                if (Math.floorMod(tick.getSymbolId(), stripes) == stripe) {
+                    tick.setReceivedNanos(received);
+                    batch.add(tick);
+                }
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    consumer.consumeOnCurrentThread(batch);
+                } catch (Exception e) {
+                    // Nothing to redeliver from; the next tick for each symbol supersedes these
+                    logger.error("Failed to dispatch {} ticks from the ring", batch.size(), e);
+                }
+            }
+            // Releases the slots only now, since the batch referenced them while it was dispatched
+            readerSequence.set(available);
+            next = available + 1;
+        }
+    }
+
+    // Spin, then yield, then park: sub-microsecond hand-off while busy without burning a core when idle
+    private static void idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+}
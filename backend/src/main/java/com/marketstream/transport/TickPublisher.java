@@ -0,0 +1,14 @@
+package com.marketstream.transport;
+
+import com.marketstream.model.Tick;
+
+import java.util.concurrent.CompletableFuture;
+
+// Producer side of the market data transport, selected by app.transport.type: kafka (default) or ring
+public interface TickPublisher {
+    // The tick is copied or serialized before this returns, so callers may reuse it right away;
+    // the future completes once the transport has accepted the tick
+    CompletableFuture<?> publish(Tick tick);
+
+    String name();
+}
@@ -0,0 +1,42 @@
+package com.marketstream.websocket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A tick already encoded as JSON frame bodies; the same arrays are shared by every session and destination
+public final class EncodedTick {
+    private final String symbol;
+    private final long seq;
+    private final byte[] payload;
+    // Null when no session was in delta mode at encode time; such sessions then get a snapshot instead
+    private final byte[] deltaPayload;
+    // Snapshot and field-masked variants, encoded at most once per kind and mask on first use
+    private final Map<Integer, byte[]> variants = new ConcurrentHashMap<>(2);
+
+    public EncodedTick(String symbol, long seq, byte[] payload, byte[] deltaPayload) {
+        this.symbol = symbol;
+        this.seq = seq;
+        this.payload = payload;
+        this.deltaPayload = deltaPayload;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public byte[] getDeltaPayload() {
+        return deltaPayload;
+    }
+
+    Map<Integer, byte[]> variants() {
+        return variants;
+    }
+}
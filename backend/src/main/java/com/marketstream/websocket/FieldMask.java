@@ -0,0 +1,41 @@
+package com.marketstream.websocket;
+
+import java.util.List;
+
+// Bit per MarketData field; symbol is always sent so clients can route the update
+public final class FieldMask {
+    public static final String[] FIELDS = {
+            "price", "bidPrice", "askPrice", "volume", "change", "changePercent", "timestamp" };
+    public static final int ALL = (1 << FIELDS.length) - 1;
+
+    private FieldMask() {
+    }
+
+    public static int parse(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL;
+        }
+        int mask = 0;
+        for (String field : fields) {
+            int index = indexOf(field);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown market data field: " + field);
+            }
+            mask |= 1 << index;
+        }
+        return mask;
+    }
+
+    public static boolean includes(int mask, int index) {
+        return (mask & (1 << index)) != 0;
+    }
+
+    private static int indexOf(String field) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
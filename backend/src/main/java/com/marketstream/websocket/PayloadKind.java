@@ -0,0 +1,10 @@
+package com.marketstream.websocket;
+
+public enum PayloadKind {
+    // Plain MarketData JSON, as sent to clients that did not ask for deltas
+    FULL,
+    // MarketData JSON plus "type":"snapshot" and "seq"; replaces the client's state for the symbol
+    SNAPSHOT,
+    // "type":"delta", symbol, seq and only the fields that changed since seq - 1
+    DELTA
+}
@@ -0,0 +1,460 @@
+package com.marketstream.websocket;
+
+import com.marketstream.latency.LatencyClock;
+import com.marketstream.latency.LatencyStage;
+import com.marketstream.latency.LatencyTracker;
+import com.marketstream.model.SubscriptionRequest;
+import com.marketstream.model.Tick;
+import com.marketstream.service.MarketDataCache;
+import com.marketstream.symbol.SymbolRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers market data to each STOMP session from its own latest-value slots instead of
+ * broadcasting through the simple broker. Every session drains on its own schedule, limited
+ * to a maximum message rate and a maximum number of messages queued on the outbound channel;
+ * while a session is behind, newer ticks overwrite older unsent ones for the same symbol, so a
+ * slow client costs one slot per symbol rather than an unbounded outbound buffer.
+ * <p>
+ * A symbol -> sessions index decides who sees a tick. Sessions are indexed under the symbols of
+ * their per-symbol subscriptions and, for /all, under the symbol set they registered over
+ * /app/subscribe; an /all subscription without a symbol set makes the session a wildcard.
+ * <p>
+ * Sessions that subscribe with {@code delta: true} get a snapshot per symbol from the cache,
+ * then only the fields that changed, tagged with the symbol's sequence number. Whenever a
+ * session's next value is not the successor of the last one it received (because conflation
+ * dropped ticks in between) it gets a snapshot instead; /app/resync requests fresh snapshots.
+ */
+@Component
+public class SessionDispatcher implements ExecutorChannelInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(SessionDispatcher.class);
+    public static final String DESTINATION_PREFIX = "/topic/market-data/";
+    public static final String ALL_DESTINATION = DESTINATION_PREFIX + "all";
+    private static final String DISPATCH_HEADER = "marketstream.dispatch";
+    // SYMBOL:stamp on sampled messages; clients send the value back to /app/latency as-is
+    public static final String ECHO_HEADER = "x-latency-echo";
+    private static final long MAX_THROTTLE_MS = 60_000L;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TickEncoder tickEncoder;
+    @Autowired
+    private MarketDataCache cacheService;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    @Autowired
+    private LatencyTracker latencyTracker;
+    // Lazy: the outbound channel is built by the WebSocket config, which registers this bean as its interceptor
+    @Lazy
+    @Autowired
+    @Qualifier("clientOutboundChannel")
+    private MessageChannel clientOutboundChannel;
+    @Value("${app.websocket.dispatcher.enabled:true}")
+    private boolean enabled;
+    @Value("${app.websocket.dispatcher.max-messages-per-second:200}")
+    private int maxMessagesPerSecond;
+    @Value("${app.websocket.dispatcher.drain-interval-ms:50}")
+    private long drainIntervalMs;
+    @Value("${app.websocket.dispatcher.max-in-flight:64}")
+    private int maxInFlight;
+    @Value("${app.websocket.dispatcher.threads:2}")
+    private int drainThreads;
+    // Every Nth message per session carries the echo header; 0 turns client latency sampling off
+    @Value("${app.latency.client-echo-every:100}")
+    private int echoEvery;
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<SessionState>> symbolIndex = new ConcurrentHashMap<>();
+    private final Set<SessionState> wildcardSessions = ConcurrentHashMap.newKeySet();
+    private final Set<SessionState> deltaSessions = ConcurrentHashMap.newKeySet();
+    private ScheduledThreadPoolExecutor drainExecutor;
+    private Counter sentCounter;
+    private Counter conflatedCounter;
+    private Counter deferredCounter;
+    private Counter droppedCounter;
+    private Counter snapshotCounter;
+
+    @PostConstruct
+    void init() {
+        drainExecutor = new ScheduledThreadPoolExecutor(drainThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-session-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainExecutor.setRemoveOnCancelPolicy(true);
+        Gauge.builder("marketstream.websocket.sessions", sessions, Map::size)
+                .description("STOMP sessions with market data subscriptions")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("marketstream.websocket.dispatch.sent").register(meterRegistry);
+        conflatedCounter = Counter.builder("marketstream.websocket.dispatch.conflated").register(meterRegistry);
+        deferredCounter = Counter.builder("marketstream.websocket.dispatch.deferred").register(meterRegistry);
+        droppedCounter = Counter.builder("marketstream.websocket.dispatch.dropped").register(meterRegistry);
+        snapshotCounter = Counter.builder("marketstream.websocket.dispatch.snapshots").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drainExecutor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Lets the consumer skip building delta payloads while nobody asked for them
+    public boolean hasDeltaSessions() {
+        return !deltaSessions.isEmpty();
+    }
+
+    // The encoded payload is shared by reference; nothing is serialized per session
+    public void publish(EncodedTick tick) {
+        Set<SessionState> subscribed = symbolIndex.get(tick.getSymbol());
+        if (subscribed != null) {
+            subscribed.forEach(session -> offer(session, tick));
+        }
+        wildcardSessions.forEach(session -> offer(session, tick));
+    }
+
+    private void offer(SessionState session, EncodedTick tick) {
+        if (session.offer(tick)) {
+            session.conflated.increment();
+            conflatedCounter.increment();
+        }
+    }
+
+    // Replaces the session's symbol set, field mask and throttle; applies to its /all subscription
+    public void subscribe(String sessionId, SubscriptionRequest request) {
+        if (!enabled) {
+            return;
+        }
+        int fieldMask = FieldMask.parse(request.getFields());
+        SessionState session = sessions.computeIfAbsent(sessionId, this::openSession);
+        session.symbolFilter = request.getSymbols() != null ? normalize(request.getSymbols()) : null;
+        session.fieldMask = fieldMask;
+        if (request.getThrottleMs() != null) {
+            reschedule(session, Math.min(Math.max(request.getThrottleMs(), drainIntervalMs), MAX_THROTTLE_MS));
+        }
+        session.deltaMode = Boolean.TRUE.equals(request.getDelta());
+        if (session.deltaMode) {
+            deltaSessions.add(session);
+        } else {
+            deltaSessions.remove(session);
+        }
+        reindex(session);
+        if (session.deltaMode) {
+            requestSnapshots(session, null);
+        }
+    }
+
+    // Sends fresh snapshots for the given symbols, or for everything the session receives when null
+    public void resync(String sessionId, Collection<String> symbols) {
+        SessionState session = sessions.get(sessionId);
+        if (session != null && session.deltaMode) {
+            requestSnapshots(session, symbols != null ? normalize(symbols) : null);
+        }
+    }
+
+    private void requestSnapshots(SessionState session, Set<String> symbols) {
+        if (symbols == null) {
+            if (wildcardSessions.contains(session)) {
+                session.snapshotRequests.addAll(symbolRegistry.activeSymbols());
+            } else {
+                session.snapshotRequests.addAll(session.indexedSymbols);
+            }
+            return;
+        }
+        session.snapshotRequests.addAll(symbols);
+    }
+
+    public void unsubscribe(String sessionId, Collection<String> symbols) {
+        SessionState session = sessions.get(sessionId);
+        if (session == null || session.symbolFilter == null) {
+            return;
+        }
+        Set<String> remaining = new HashSet<>(session.symbolFilter);
+        remaining.removeAll(normalize(symbols));
+        session.symbolFilter = Set.copyOf(remaining);
+        reindex(session);
+    }
+
+    public List<SessionStats> stats() {
+        List<SessionStats> stats = new ArrayList<>(sessions.size());
+        sessions.values().forEach(session -> stats.add(session.stats()));
+        return stats;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (!enabled || destination == null || !destination.startsWith(DESTINATION_PREFIX)) {
+            return;
+        }
+        SessionState session = sessions.computeIfAbsent(accessor.getSessionId(), this::openSession);
+        session.subscriptions.put(accessor.getSubscriptionId(), destination);
+        reindex(session);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionState session = sessions.get(accessor.getSessionId());
+        if (session != null && session.subscriptions.remove(accessor.getSubscriptionId()) != null) {
+            reindex(session);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionState session = sessions.remove(event.getSessionId());
+        if (session == null) {
+            return;
+        }
+        session.subscriptions.clear();
+        deltaSessions.remove(session);
+        reindex(session);
+        if (session.drainTask != null) {
+            session.drainTask.cancel(false);
+        }
+    }
+
+    private SessionState openSession(String sessionId) {
+        SessionState session = new SessionState(sessionId);
+        reschedule(session, drainIntervalMs);
+        return session;
+    }
+
+    private void reschedule(SessionState session, long intervalMs) {
+        synchronized (session) {
+            if (session.drainTask != null) {
+                if (session.drainIntervalMs == intervalMs) {
+                    return;
+                }
+                session.drainTask.cancel(false);
+            }
+            session.drainIntervalMs = intervalMs;
+            session.drainTask = drainExecutor.scheduleWithFixedDelay(() -> drain(session),
+                    intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Moves the session between index entries to match its current subscriptions and symbol set
+    private void reindex(SessionState session) {
+        synchronized (session) {
+            boolean hasAll = session.subscriptions.containsValue(ALL_DESTINATION);
+            boolean wildcard = hasAll && session.symbolFilter == null;
+            Set<String> symbols = new HashSet<>();
+            if (!wildcard) {
+                if (hasAll) {
+                    symbols.addAll(session.symbolFilter);
+                }
+                for (String destination : session.subscriptions.values()) {
+                    if (!destination.equals(ALL_DESTINATION)) {
+                        symbols.add(destination.substring(DESTINATION_PREFIX.length()));
+                    }
+                }
+            }
+            for (String symbol : session.indexedSymbols) {
+                if (!symbols.contains(symbol)) {
+                    symbolIndex.computeIfPresent(symbol, (key, indexed) -> {
+                        indexed.remove(session);
+                        return indexed.isEmpty() ? null : indexed;
+                    });
+                }
+            }
+            for (String symbol : symbols) {
+                symbolIndex.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet()).add(session);
+            }
+            if (wildcard) {
+                wildcardSessions.add(session);
+            } else {
+                wildcardSessions.remove(session);
+            }
+            session.indexedSymbols = symbols;
+        }
+    }
+
+    private static Set<String> normalize(Collection<String> symbols) {
+        Set<String> normalized = new HashSet<>();
+        symbols.forEach(symbol -> normalized.add(symbol.trim().toUpperCase()));
+        return Set.copyOf(normalized);
+    }
+
+    void drain(SessionState session) {
+        try {
+            int budget = Math.max(1, (int) Math.ceil(maxMessagesPerSecond * session.drainIntervalMs / 1000.0));
+            while (budget > 0) {
+                if (session.inFlight.get() >= maxInFlight) {
+                    // The client is not keeping up; leave values in their slots to be conflated
+                    session.deferred.increment();
+                    deferredCounter.increment();
+                    return;
+                }
+                // Snapshots go first so the deltas drained after them apply to a known base
+                String snapshotSymbol = session.snapshotRequests.poll();
+                if (snapshotSymbol != null) {
+                    budget -= sendSnapshot(session, snapshotSymbol);
+                    continue;
+                }
+                String symbol = session.dirtySymbols.poll();
+                if (symbol == null) {
+                    return;
+                }
+                EncodedTick tick = session.pending.remove(symbol);
+                if (tick == null) {
+                    continue;
+                }
+                budget -= send(session, tick);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to drain session: {}", session.sessionId, e);
+        }
+    }
+
+    private int send(SessionState session, EncodedTick tick) {
+        PayloadKind kind = PayloadKind.FULL;
+        if (session.deltaMode) {
+            long last = session.lastSent(tick.getSymbol());
+            if (last >= tick.getSeq()) {
+                // Already covered by a snapshot taken after this tick was queued
+                return 0;
+            }
+            boolean contiguous = last == tick.getSeq() - 1 && tick.getDeltaPayload() != null;
+            kind = contiguous ? PayloadKind.DELTA : PayloadKind.SNAPSHOT;
+        }
+        int messages = 0;
+        byte[] payload = null;
+        for (Map.Entry<String, String> subscription : session.subscriptions.entrySet()) {
+            String destination = subscription.getValue();
+            if (session.wants(destination, tick.getSymbol())) {
+                if (payload == null) {
+                    payload = tickEncoder.payloadFor(tick, kind, session.fieldMask);
+                }
+                sendToSession(session, subscription.getKey(), destination, tick.getSymbol(), payload);
+                messages++;
+            }
+        }
+        if (session.deltaMode) {
+            session.markSent(tick.getSymbol(), tick.getSeq());
+        }
+        return Math.max(messages, 1);
+    }
+
+    private int sendSnapshot(SessionState session, String symbol) {
+        // Sequence read before the value: if a newer tick lands in between, its delta is re-sent and
+        // re-applied, which is harmless because deltas carry absolute values
+        long seq = tickEncoder.currentSeq(symbol);
+        Tick tick = new Tick();
+        if (!cacheService.getTick(symbol, tick)) {
+            // Nothing cached yet; the symbol's first tick goes out as a snapshot
+            session.lastSentSeq.remove(symbol);
+            return 0;
+        }
+        int messages = 0;
+        byte[] payload = null;
+        for (Map.Entry<String, String> subscription : session.subscriptions.entrySet()) {
+            String destination = subscription.getValue();
+            if (session.wants(destination, symbol)) {
+                if (payload == null) {
+                    payload = tickEncoder.snapshot(tick, seq, session.fieldMask);
+                }
+                sendToSession(session, subscription.getKey(), destination, symbol, payload);
+                messages++;
+            }
+        }
+        if (messages > 0) {
+            session.markSent(symbol, seq);
+            snapshotCounter.increment();
+        }
+        return Math.max(messages, 1);
+    }
+
+    private void sendToSession(SessionState session, String subscriptionId, String destination, String symbol,
+            byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(session.sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setHeader(DISPATCH_HEADER, Boolean.TRUE);
+        if (echoEvery > 0 && --session.untilEcho <= 0) {
+            session.untilEcho = echoEvery;
+            accessor.setNativeHeader(ECHO_HEADER, symbol + ":" + LatencyClock.now());
+        }
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        session.inFlight.incrementAndGet();
+        try {
+            clientOutboundChannel.send(message);
+            session.sent.increment();
+            sentCounter.increment();
+        } catch (RuntimeException e) {
+            session.inFlight.decrementAndGet();
+            session.dropped.increment();
+            droppedCounter.increment();
+            logger.debug("Dropped message for session: {}", session.sessionId, e);
+        }
+    }
+
+    // Client echo of an ECHO_HEADER value: the time from sending that message until the echo arrived
+    public void recordEcho(String echoed) {
+        int separator = echoed.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Malformed latency echo: " + echoed);
+        }
+        int id = symbolRegistry.idOf(echoed.substring(0, separator));
+        long sent = Long.parseLong(echoed.substring(separator + 1).trim());
+        latencyTracker.recordSince(LatencyStage.CLIENT_RECEIVE, id, sent);
+    }
+
+    // Outbound channel hook: a dispatched message stops counting as in flight once it was written to the session
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+            Exception ex) {
+        if (!Boolean.TRUE.equals(message.getHeaders().get(DISPATCH_HEADER))) {
+            return;
+        }
+        SessionState session = sessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        if (session != null) {
+            session.inFlight.decrementAndGet();
+            if (ex != null) {
+                session.dropped.increment();
+                droppedCounter.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.marketstream.websocket;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-session latest-value slots: one pending value per symbol, drained in the order symbols became dirty
+class SessionState {
+    final String sessionId;
+    // subscriptionId -> destination
+    final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+    final Map<String, EncodedTick> pending = new ConcurrentHashMap<>();
+    final ConcurrentLinkedQueue<String> dirtySymbols = new ConcurrentLinkedQueue<>();
+    final AtomicInteger inFlight = new AtomicInteger();
+    final LongAdder sent = new LongAdder();
+    final LongAdder conflated = new LongAdder();
+    final LongAdder deferred = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+    // Symbols registered over /app/subscribe; null means the /all subscription receives every symbol
+    volatile Set<String> symbolFilter;
+    volatile int fieldMask = FieldMask.ALL;
+    volatile long drainIntervalMs;
+    // Delta mode: ticks go out as deltas against the last sequence this session received per symbol
+    volatile boolean deltaMode;
+    final ConcurrentLinkedQueue<String> snapshotRequests = new ConcurrentLinkedQueue<>();
+    // symbol -> last sequence sent; only touched by the drain task
+    final Map<String, long[]> lastSentSeq = new HashMap<>();
+    // Messages left until the next one carries a latency echo header; only touched by the drain task
+    int untilEcho;
+    // Symbols this session is currently listed under in the dispatcher's index; guarded by the session
+    Set<String> indexedSymbols = Set.of();
+    volatile ScheduledFuture<?> drainTask;
+
+    SessionState(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    boolean offer(EncodedTick tick) {
+        String symbol = tick.getSymbol();
+        if (pending.put(symbol, tick) == null) {
+            dirtySymbols.offer(symbol);
+            return false;
+        }
+        return true;
+    }
+
+    boolean wants(String destination, String symbol) {
+        if (destination.equals(SessionDispatcher.ALL_DESTINATION)) {
+            Set<String> filter = symbolFilter;
+            return filter == null || filter.contains(symbol);
+        }
+        return destination.length() == SessionDispatcher.DESTINATION_PREFIX.length() + symbol.length()
+                && destination.endsWith(symbol);
+    }
+
+    // -1 until something was sent for the symbol, so its first message is a snapshot
+    long lastSent(String symbol) {
+        long[] seq = lastSentSeq.get(symbol);
+        return seq != null ? seq[0] : -1L;
+    }
+
+    void markSent(String symbol, long seq) {
+        lastSentSeq.computeIfAbsent(symbol, key -> new long[1])[0] = seq;
+    }
+
+    SessionStats stats() {
+        return new SessionStats(sessionId, subscriptions.size(), pending.size(), inFlight.get(),
+                sent.sum(), conflated.sum(), deferred.sum(), dropped.sum());
+    }
+}
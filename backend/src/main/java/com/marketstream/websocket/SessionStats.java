@@ -0,0 +1,58 @@
+package com.marketstream.websocket;
+
+public class SessionStats {
+    private final String sessionId;
+    private final int subscriptions;
+    private final int pending;
+    private final int inFlight;
+    private final long sent;
+    private final long conflated;
+    private final long deferred;
+    private final long dropped;
+
+    public SessionStats(String sessionId, int subscriptions, int pending, int inFlight,
+            long sent, long conflated, long deferred, long dropped) {
+        this.sessionId = sessionId;
+        this.subscriptions = subscriptions;
+        this.pending = pending;
+        this.inFlight = inFlight;
+        this.sent = sent;
+        this.conflated = conflated;
+        this.deferred = deferred;
+        this.dropped = dropped;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public int getSubscriptions() {
+        return subscriptions;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    // Updates replaced by a newer value for the same symbol before they were sent
+    public long getConflated() {
+        return conflated;
+    }
+
+    // Drain rounds skipped because the session still had too many messages in flight
+    public long getDeferred() {
+        return deferred;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,192 @@
+package com.marketstream.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.marketstream.model.Tick;
+import com.marketstream.symbol.SymbolRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+@Component
+public class TickEncoder {
+    // Same pattern as MarketData.timestamp so deltas and full frames agree
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int PRICE = 0;
+    private static final int BID = 1;
+    private static final int ASK = 2;
+    private static final int VOLUME = 3;
+    private static final int CHANGE = 4;
+    private static final int CHANGE_PERCENT = 5;
+    private static final int TIMESTAMP = 6;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+    // Previous value and sequence per symbol id, for computing deltas
+    private volatile DeltaState[] deltaStates = new DeltaState[64];
+
+    private static class DeltaState {
+        final Tick previous = new Tick();
+        boolean hasPrevious;
+        volatile long seq;
+    }
+
+    // Forwards the Kafka JSON unchanged when the record arrived as JSON; both sides write the same MarketData shape
+    public EncodedTick encode(Tick tick, boolean withDelta) throws JsonProcessingException {
+        DeltaState state = deltaState(symbolRegistry.resolve(tick));
+        int changed;
+        long seq;
+        synchronized (state) {
+            changed = state.hasPrevious ? changedFields(state.previous, tick) : FieldMask.ALL;
+            state.previous.copyFrom(tick);
+            state.hasPrevious = true;
+            seq = state.seq + 1;
+            state.seq = seq;
+        }
+        byte[] payload = tick.getSourceJson() != null
+                ? tick.getSourceJson()
+                : objectMapper.writeValueAsBytes(tick.toMarketData());
+        byte[] delta = withDelta ? encodeDelta(tick, seq, changed) : null;
+        return new EncodedTick(tick.getSymbol(), seq, payload, delta);
+    }
+
+    // Sequence of the last tick encoded for the symbol, 0 if none
+    public long currentSeq(String symbol) {
+        int id = symbolRegistry.idOf(symbol);
+        DeltaState[] states = deltaStates;
+        if (id == SymbolRegistry.UNKNOWN || id >= states.length || states[id] == null) {
+            return 0L;
+        }
+        return states[id].seq;
+    }
+
+    public byte[] payloadFor(EncodedTick tick, PayloadKind kind, int fieldMask) {
+        if (kind == PayloadKind.FULL && fieldMask == FieldMask.ALL) {
+            return tick.getPayload();
+        }
+        if (kind == PayloadKind.DELTA && fieldMask == FieldMask.ALL) {
+            return tick.getDeltaPayload();
+        }
+        int key = kind.ordinal() << 16 | fieldMask;
+        return tick.variants().computeIfAbsent(key, k -> variant(tick, kind, fieldMask));
+    }
+
+    // A snapshot built from a cached value rather than a live tick, for subscribe and resync
+    public byte[] snapshot(Tick tick, long seq, int fieldMask) {
+        ObjectNode node = objectMapper.valueToTree(tick.toMarketData());
+        return write(withSnapshotHeader(mask(node, fieldMask), seq));
+    }
+
+    private byte[] variant(EncodedTick tick, PayloadKind kind, int fieldMask) {
+        try {
+            if (kind == PayloadKind.DELTA) {
+                return write(mask((ObjectNode) objectMapper.readTree(tick.getDeltaPayload()), fieldMask));
+            }
+            ObjectNode node = mask((ObjectNode) objectMapper.readTree(tick.getPayload()), fieldMask);
+            return write(kind == PayloadKind.SNAPSHOT ? withSnapshotHeader(node, tick.getSeq()) : node);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] encodeDelta(Tick tick, long seq, int changed) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("type", "delta");
+        node.put("symbol", tick.getSymbol());
+        node.put("seq", seq);
+        int scale = tick.getPriceScale();
+        if (FieldMask.includes(changed, PRICE)) {
+            node.put(FieldMask.FIELDS[PRICE], BigDecimal.valueOf(tick.getPrice(), scale));
+        }
+        if (FieldMask.includes(changed, BID)) {
+            node.put(FieldMask.FIELDS[BID], BigDecimal.valueOf(tick.getBidPrice(), scale));
+        }
+        if (FieldMask.includes(changed, ASK)) {
+            node.put(FieldMask.FIELDS[ASK], BigDecimal.valueOf(tick.getAskPrice(), scale));
+        }
+        if (FieldMask.includes(changed, VOLUME)) {
+            node.put(FieldMask.FIELDS[VOLUME], tick.getVolume());
+        }
+        if (FieldMask.includes(changed, CHANGE)) {
+            node.put(FieldMask.FIELDS[CHANGE], BigDecimal.valueOf(tick.getChange(), scale));
+        }
+        if (FieldMask.includes(changed, CHANGE_PERCENT)) {
+            node.put(FieldMask.FIELDS[CHANGE_PERCENT],
+                    BigDecimal.valueOf(tick.getChangePercent(), Tick.CHANGE_PERCENT_SCALE));
+        }
+        if (FieldMask.includes(changed, TIMESTAMP)) {
+            LocalDateTime timestamp = LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(0, tick.getTimestampNanos()), ZoneId.systemDefault());
+            node.put(FieldMask.FIELDS[TIMESTAMP], TIMESTAMP_FORMAT.format(timestamp));
+        }
+        return write(node);
+    }
+
+    private static int changedFields(Tick previous, Tick current) {
+        // A scale change alters every decimal's representation
+        boolean rescaled = previous.getPriceScale() != current.getPriceScale();
+        int changed = 0;
+        changed |= rescaled || previous.getPrice() != current.getPrice() ? 1 << PRICE : 0;
+        changed |= rescaled || previous.getBidPrice() != current.getBidPrice() ? 1 << BID : 0;
+        changed |= rescaled || previous.getAskPrice() != current.getAskPrice() ? 1 << ASK : 0;
+        changed |= previous.getVolume() != current.getVolume() ? 1 << VOLUME : 0;
+        changed |= rescaled || previous.getChange() != current.getChange() ? 1 << CHANGE : 0;
+        changed |= previous.getChangePercent() != current.getChangePercent() ? 1 << CHANGE_PERCENT : 0;
+        // The wire format has second precision
+        changed |= previous.getTimestampNanos() / 1_000_000_000L != current.getTimestampNanos() / 1_000_000_000L
+                ? 1 << TIMESTAMP : 0;
+        return changed;
+    }
+
+    private ObjectNode mask(ObjectNode node, int fieldMask) {
+        for (int i = 0; i < FieldMask.FIELDS.length; i++) {
+            if (!FieldMask.includes(fieldMask, i)) {
+                node.remove(FieldMask.FIELDS[i]);
+            }
+        }
+        return node;
+    }
+
+    private ObjectNode withSnapshotHeader(ObjectNode node, long seq) {
+        node.put("type", "snapshot");
+        node.put("seq", seq);
+        return node;
+    }
+
+    private byte[] write(ObjectNode node) {
+        try {
+            return objectMapper.writeValueAsBytes(node);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private DeltaState deltaState(int id) {
+        DeltaState[] states = deltaStates;
+        if (id < states.length && states[id] != null) {
+            return states[id];
+        }
+        synchronized (this) {
+            states = deltaStates;
+            if (id >= states.length) {
+                states = Arrays.copyOf(states, Math.max(states.length * 2, id + 1));
+            }
+            if (states[id] == null) {
+                states[id] = new DeltaState();
+            }
+            deltaStates = states;
+            return states[id];
+        }
+    }
+}
@@ -86,6 +86,12 @@ const MarketStream = () => {
         stompClient.current.subscribe("/topic/market-data/all", (message) => {
           const data = JSON.parse(message.body);
 
+          // Sampled messages carry a latency stamp; echo it back untouched
+          const echo = message.headers["x-latency-echo"];
+          if (echo) {
+            stompClient.current.send("/app/latency", {}, echo);
+          }
+
           setMarketData((prev) => ({
             ...prev,
             [data.symbol]: data,